@@ -102,6 +102,11 @@ export function AuthProvider({ children }) {
   }
 
   const logout = () => {
+    // Revoke the token server-side; the local session ends regardless of the outcome
+    const token = localStorage.getItem('token')
+    if (token) {
+      authAPI.logout(token).catch(() => {})
+    }
     localStorage.removeItem('token')
     setUser(null)
   }
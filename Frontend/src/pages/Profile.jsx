@@ -64,10 +64,14 @@ function Profile() {
 
     setSaving(true)
     try {
-      await profileAPI.changePassword({
+      const response = await profileAPI.changePassword({
         currentPassword: passwordForm.currentPassword,
         newPassword: passwordForm.newPassword
       })
+      // Old tokens are revoked by a password change; keep the session with the new one
+      if (response.data?.token) {
+        localStorage.setItem('token', response.data.token)
+      }
       toast.success('Password changed successfully')
       setPasswordForm({
         currentPassword: '',
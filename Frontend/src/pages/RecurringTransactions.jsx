@@ -178,13 +178,18 @@ function RecurringTransactions() {
     }
   }
 
-  const handleExecute = async (id) => {
+  const handleExecute = async (transaction) => {
     try {
-      await recurringTransactionAPI.execute(id)
+      await recurringTransactionAPI.execute(transaction.id, transaction.nextDueDate)
       toast.success('Recurring transaction executed successfully')
       fetchData()
     } catch (error) {
-      toast.error('Failed to execute recurring transaction')
+      if (error.response?.status === 409) {
+        toast.error('This occurrence has already been posted')
+        fetchData()
+      } else {
+        toast.error('Failed to execute recurring transaction')
+      }
     }
   }
 
@@ -401,7 +406,7 @@ function RecurringTransactions() {
                       </button>
                       {transaction.isActive && (
                         <button
-                          onClick={() => handleExecute(transaction.id)}
+                          onClick={() => handleExecute(transaction)}
                           className="text-blue-600 hover:text-blue-900"
                           title="Execute Now"
                         >
@@ -52,6 +52,8 @@ export const authAPI = {
   login: (credentials) => api.post('/auth/login', credentials),
   register: (userData) => api.post('/auth/register', userData),
   verifyToken: () => api.get('/auth/verify'),
+  // The token is passed explicitly because it is cleared from storage right after the call
+  logout: (token) => api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }),
 }
 
 // Transaction API
@@ -108,7 +110,10 @@ export const recurringTransactionAPI = {
   update: (id, data) => api.put(`/recurring-transactions/${id}`, data),
   delete: (id) => api.delete(`/recurring-transactions/${id}`),
   toggle: (id) => api.post(`/recurring-transactions/${id}/toggle`),
-  execute: (id) => api.post(`/recurring-transactions/${id}/execute`),
+  // occurrenceDate is the nextDueDate the user saw; the server answers 409 once that one is posted
+  execute: (id, occurrenceDate) => api.post(`/recurring-transactions/${id}/execute`, null, { params: { occurrenceDate } }),
+  catchUp: (id) => api.post(`/recurring-transactions/${id}/catch-up`),
+  getCalendar: (params) => api.get('/recurring-transactions/calendar', { params }),
 }
 
 // User Profile API
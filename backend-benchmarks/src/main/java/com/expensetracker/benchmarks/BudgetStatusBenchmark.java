@@ -0,0 +1,99 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.BudgetType;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.AnalyticsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AnalyticsService#getBudgetStatus} with its repositories answering from memory, so only the
+ * per-budget DTO building and BigDecimal arithmetic are measured. Half of the budgets are per
+ * category, the other half overall.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BudgetStatusBenchmark {
+
+    @Param({"5", "50"})
+    private int budgets;
+
+    private AnalyticsService analyticsService;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+
+        LocalDate today = LocalDate.now();
+        List<Budget> activeBudgets = new ArrayList<>(budgets);
+        for (int i = 0; i < budgets; i++) {
+            Budget budget = new Budget();
+            budget.setId((long) i + 1);
+            budget.setAmount(new BigDecimal("500.00").add(BigDecimal.valueOf(i * 25L)));
+            budget.setStartDate(today.withDayOfMonth(1));
+            budget.setEndDate(today.withDayOfMonth(today.lengthOfMonth()));
+            budget.setType(BudgetType.MONTHLY);
+            budget.setAlertThreshold(80);
+            budget.setIsActive(true);
+            budget.setUser(user);
+            if (i % 2 == 0) {
+                Category category = new Category();
+                category.setId((long) i + 1);
+                category.setName("Category " + i);
+                category.setColor("#4ECDC4");
+                category.setIsDefault(false);
+                budget.setCategory(category);
+            }
+            activeBudgets.add(budget);
+        }
+
+        analyticsService = new AnalyticsService();
+        ReflectionTestUtils.setField(analyticsService, "budgetRepository",
+                repository(BudgetRepository.class, activeBudgets));
+        ReflectionTestUtils.setField(analyticsService, "transactionRepository",
+                repository(TransactionRepository.class, new BigDecimal("432.10")));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> budgetStatus() {
+        return analyticsService.getBudgetStatus(user);
+    }
+
+    // A repository whose every query returns the same result
+    private static <T> T repository(Class<T> type, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return type.getSimpleName();
+                        }
+                    }
+                    return result;
+                }));
+    }
+}
@@ -0,0 +1,87 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.security.JwtRequestFilter;
+import com.expensetracker.security.JwtTokenUtil;
+import com.expensetracker.security.PrincipalCache;
+import com.expensetracker.security.TokenRevocationList;
+import com.expensetracker.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second through {@link JwtRequestFilter} for a request carrying a valid bearer token.
+ * The database lookup is stubbed; after the first request the principal is served from the
+ * {@link PrincipalCache}, which is the steady state in production.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtFilterBenchmark {
+
+    static final String SECRET = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private JwtRequestFilter filter;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtTokenUtil jwtTokenUtil = newJwtTokenUtil();
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPassword("unused");
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+
+            @Override
+            public User loadUserById(Long id) {
+                return user;
+            }
+        };
+
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtTokenUtil", jwtTokenUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(10000, 300000));
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", new TokenRevocationList(1 << 20, 4));
+
+        authorization = "Bearer " + jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transactions");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    static JwtTokenUtil newJwtTokenUtil() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 86400000L);
+        jwtTokenUtil.init();
+        return jwtTokenUtil;
+    }
+}
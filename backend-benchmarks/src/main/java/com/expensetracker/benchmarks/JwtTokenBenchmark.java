@@ -0,0 +1,51 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.security.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing a token at login and checking one on every authenticated request, as
+ * {@link JwtTokenUtil} does them: one HMAC signature each way.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtTokenBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    private User user;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = JwtFilterBenchmark.newJwtTokenUtil();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPassword("unused");
+
+        token = jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        Claims claims = jwtTokenUtil.parseClaims(token);
+        return jwtTokenUtil.validateClaims(claims, user);
+    }
+}
@@ -0,0 +1,381 @@
+package com.expensetracker.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Replays a mixed workload against a running instance and reports throughput and p50/p95/p99
+ * latency per endpoint. Each thread acts as one client of the users the synthetic data generator
+ * created: it logs in as a random one of them, loads their categories and accounts, then picks
+ * operations by the weights in {@code --mix} until the run ends, logging in again as another user
+ * whenever the mix says so. Only requests after the warm-up are counted.
+ *
+ * <pre>java -cp target/benchmarks.jar com.expensetracker.benchmarks.LoadDriver \
+ *     --url=http://localhost:8080/expense-tracker-api --users=1000 --threads=32 --duration=120</pre>
+ *
+ * Start the server with {@code --rate-limit.enabled=false}: all requests come from one address.
+ * On an in-memory database, also pass {@code --synthetic-data.users=N} so the server loads the
+ * users itself before taking requests.
+ * The create operations add transactions to the synthetic users. Results are also written as JSON
+ * to {@code --out}.
+ */
+public class LoadDriver {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("url", "http://localhost:8080/expense-tracker-api");
+        DEFAULTS.put("prefix", "synthetic");
+        DEFAULTS.put("first-user", "1");
+        DEFAULTS.put("users", "100");
+        DEFAULTS.put("password", "password123");
+        DEFAULTS.put("threads", "16");
+        DEFAULTS.put("warmup", "30");
+        DEFAULTS.put("duration", "120");
+        DEFAULTS.put("mix", "login:5,dashboard:15,page:40,create:15,search:25");
+        DEFAULTS.put("out", "load-result.json");
+    }
+
+    private enum Operation {
+        LOGIN, DASHBOARD, PAGE, CREATE, SEARCH
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private final Map<String, String> options;
+
+    private final Operation[] operations;
+
+    private final int[] weights;
+
+    private long measureFrom;
+
+    private long measureUntil;
+
+    private LoadDriver(Map<String, String> options) {
+        this.options = options;
+        String[] entries = options.get("mix").split(",");
+        operations = new Operation[entries.length];
+        weights = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entries[i]);
+            }
+            operations[i] = Operation.valueOf(parts[0].toUpperCase());
+            weights[i] = Integer.parseInt(parts[1]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0 || !DEFAULTS.containsKey(arg.substring(2, equals))) {
+                throw new IllegalArgumentException("Unknown option " + arg + "; options (with defaults): " + DEFAULTS);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws Exception {
+        int threads = Integer.parseInt(options.get("threads"));
+        long now = System.nanoTime();
+        measureFrom = now + Duration.ofSeconds(Long.parseLong(options.get("warmup"))).toNanos();
+        measureUntil = measureFrom + Duration.ofSeconds(Long.parseLong(options.get("duration"))).toNanos();
+
+        List<Client> clients = new ArrayList<>(threads);
+        List<Thread> running = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Client client = new Client(new Random(i));
+            clients.add(client);
+            Thread thread = new Thread(client, "load-driver-" + (i + 1));
+            thread.start();
+            running.add(thread);
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+
+        Map<String, Latencies> merged = new TreeMap<>();
+        Map<String, Long> errors = new TreeMap<>();
+        for (Client client : clients) {
+            client.latencies.forEach((endpoint, latencies) ->
+                    merged.computeIfAbsent(endpoint, e -> new Latencies()).addAll(latencies));
+            client.errors.forEach((endpoint, count) -> errors.merge(endpoint, count, Long::sum));
+        }
+        report(merged, errors);
+    }
+
+    private void report(Map<String, Latencies> latencies, Map<String, Long> errors) throws Exception {
+        double seconds = (measureUntil - measureFrom) / 1e9;
+        List<Map<String, Object>> results = new ArrayList<>();
+        System.out.printf("%-28s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+
+        List<String> endpoints = new ArrayList<>(latencies.keySet());
+        errors.keySet().stream().filter(e -> !latencies.containsKey(e)).forEach(endpoints::add);
+        for (String endpoint : endpoints) {
+            Latencies endpointLatencies = latencies.getOrDefault(endpoint, new Latencies());
+            long[] sorted = endpointLatencies.sorted();
+            long errorCount = errors.getOrDefault(endpoint, 0L);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("endpoint", endpoint);
+            result.put("requests", sorted.length);
+            result.put("errors", errorCount);
+            result.put("throughput", sorted.length / seconds);
+            result.put("p50", millis(percentile(sorted, 0.50)));
+            result.put("p95", millis(percentile(sorted, 0.95)));
+            result.put("p99", millis(percentile(sorted, 0.99)));
+            result.put("max", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+            results.add(result);
+
+            System.out.printf("%-28s %10d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n", endpoint, sorted.length, errorCount,
+                    result.get("throughput"), result.get("p50"), result.get("p95"), result.get("p99"), result.get("max"));
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("options", options);
+        run.put("seconds", seconds);
+        run.put("endpoints", results);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(options.get("out")), run);
+        System.out.println("Results written to " + options.get("out"));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * One simulated client. Keeps its own latencies so threads do not contend while recording.
+     */
+    private final class Client implements Runnable {
+
+        private final Random random;
+
+        private final Map<String, Latencies> latencies = new HashMap<>();
+
+        private final Map<String, Long> errors = new HashMap<>();
+
+        private String token;
+
+        private List<Long> categories = new ArrayList<>();
+
+        private List<Long> accounts = new ArrayList<>();
+
+        private Client(Random random) {
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            login();
+            while (System.nanoTime() < measureUntil) {
+                if (token == null || categories.isEmpty() || accounts.isEmpty()) {
+                    login();
+                    continue;
+                }
+                switch (nextOperation()) {
+                    case LOGIN:
+                        login();
+                        break;
+                    case DASHBOARD:
+                        send("GET /analytics/dashboard", get("/analytics/dashboard"));
+                        break;
+                    case PAGE:
+                        // Most clients look at the first pages
+                        int page = Math.min(random.nextInt(10), random.nextInt(10));
+                        send("GET /transactions", get("/transactions?page=" + page + "&size=20&sort=transactionDate,desc"));
+                        break;
+                    case CREATE:
+                        create();
+                        break;
+                    case SEARCH:
+                        search();
+                        break;
+                }
+            }
+        }
+
+        private Operation nextOperation() {
+            int total = Arrays.stream(weights).sum();
+            int point = random.nextInt(total);
+            for (int i = 0; i < weights.length; i++) {
+                point -= weights[i];
+                if (point < 0) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        private void login() {
+            int user = Integer.parseInt(options.get("first-user")) + random.nextInt(Integer.parseInt(options.get("users")));
+            Map<String, String> body = new LinkedHashMap<>();
+            body.put("username", options.get("prefix") + "-" + String.format("%07d", user));
+            body.put("password", options.get("password"));
+
+            token = null;
+            JsonNode response = send("POST /auth/login", post("/auth/login", body));
+            if (response == null) {
+                pauseAfterError();
+                return;
+            }
+            token = response.path("token").asText(null);
+            categories = ids(send("GET /categories", get("/categories")));
+            accounts = ids(send("GET /accounts", get("/accounts")));
+        }
+
+        private void create() {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("amount", BigDecimal.valueOf(5 + random.nextDouble() * 95).setScale(2, RoundingMode.HALF_UP));
+            body.put("description", "Load test purchase");
+            body.put("type", "EXPENSE");
+            body.put("transactionDate", LocalDate.now().toString());
+            body.put("categoryId", categories.get(random.nextInt(categories.size())));
+            body.put("accountId", accounts.get(random.nextInt(accounts.size())));
+            send("POST /transactions", post("/transactions", body));
+        }
+
+        private void search() {
+            LocalDate end = LocalDate.now().minusDays(random.nextInt(365 * 2));
+            LocalDate start = end.minusMonths(1 + random.nextInt(3));
+            String query = "/transactions/search?startDate=" + start + "&endDate=" + end;
+            if (random.nextBoolean()) {
+                query += "&categoryId=" + categories.get(random.nextInt(categories.size()));
+            }
+            send("GET /transactions/search", get(query));
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return request(path).GET();
+        }
+
+        private HttpRequest.Builder post(String path, Object body) {
+            try {
+                return request(path).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.get("url") + path))
+                    .timeout(Duration.ofSeconds(30));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+
+        // Returns the parsed body of a successful response, or null after recording an error
+        private JsonNode send(String endpoint, HttpRequest.Builder request) {
+            long started = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                long finished = System.nanoTime();
+                if (response.statusCode() >= 400) {
+                    error(endpoint, started);
+                    if (response.statusCode() == 401) {
+                        token = null;
+                    }
+                    return null;
+                }
+                if (started >= measureFrom && finished <= measureUntil) {
+                    latencies.computeIfAbsent(endpoint, e -> new Latencies()).add(finished - started);
+                }
+                byte[] body = response.body();
+                return body.length > 0 ? objectMapper.readTree(body) : objectMapper.nullNode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (Exception e) {
+                error(endpoint, started);
+                return null;
+            }
+        }
+
+        private void error(String endpoint, long started) {
+            if (started >= measureFrom && started < measureUntil) {
+                errors.merge(endpoint, 1L, Long::sum);
+            }
+        }
+
+        private void pauseAfterError() {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        private List<Long> ids(JsonNode list) {
+            List<Long> ids = new ArrayList<>();
+            if (list != null) {
+                list.forEach(item -> ids.add(item.path("id").asLong()));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Growable array of latencies in nanoseconds.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.security.PasswordHashingBusyException;
+import com.expensetracker.security.PasswordHashingExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API request latency while many threads log in at once.
+ *
+ * In the "inline" group every login thread runs BCrypt itself, as the servlet threads used to; in
+ * the "offloaded" group logins go through {@link PasswordHashingExecutor}, which caps BCrypt at its
+ * pool size and rejects the overflow. Compare the sampled percentiles of the two apiRequest methods:
+ * with offloading they should stay close to the idle filter latency.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class LoginStormBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    private JwtFilterBenchmark api;
+
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hash = passwordEncoder.encode(PASSWORD);
+        passwordHashingExecutor = new PasswordHashingExecutor(2, 64);
+        api = new JwtFilterBenchmark();
+        api.setUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Benchmark
+    @Group("inline")
+    @GroupThreads(2)
+    public int apiRequestInline() throws Exception {
+        return api.authenticatedRequest();
+    }
+
+    @Benchmark
+    @Group("inline")
+    @GroupThreads(16)
+    public boolean loginInline() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("offloaded")
+    @GroupThreads(2)
+    public int apiRequestOffloaded() throws Exception {
+        return api.authenticatedRequest();
+    }
+
+    @Benchmark
+    @Group("offloaded")
+    @GroupThreads(16)
+    public boolean loginOffloaded() {
+        try {
+            return passwordHashingExecutor.call(() -> passwordEncoder.matches(PASSWORD, hash));
+        } catch (PasswordHashingBusyException e) {
+            return false;
+        }
+    }
+}
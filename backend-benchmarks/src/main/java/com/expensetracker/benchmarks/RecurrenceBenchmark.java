@@ -0,0 +1,59 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.entity.RecurrenceType;
+import com.expensetracker.service.RecurrenceIterator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Next-due-date calculation over long horizons, as a recurring transaction catching up after a
+ * long outage steps through it. {@code nextDueDates} calls {@link RecurrenceIterator#advance}
+ * directly, which is what {@code RecurringTransactionService.calculateNextDueDate} delegates to;
+ * {@code iterateDueDates} walks the same dates through the iterator the catch-up uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecurrenceBenchmark {
+
+    @Param({"DAILY", "WEEKLY", "MONTHLY", "YEARLY"})
+    private RecurrenceType recurrenceType;
+
+    @Param({"1", "30"})
+    private int years;
+
+    // Month ends exercise the day-of-month clamping in plusMonths
+    private final LocalDate first = LocalDate.of(2000, 1, 31);
+
+    private LocalDate last;
+
+    @Setup
+    public void setUp() {
+        last = first.plusYears(years);
+    }
+
+    @Benchmark
+    public int nextDueDates() {
+        int dates = 0;
+        for (LocalDate date = first; !date.isAfter(last); date = RecurrenceIterator.advance(date, recurrenceType)) {
+            dates++;
+        }
+        return dates;
+    }
+
+    @Benchmark
+    public int iterateDueDates() {
+        int dates = 0;
+        RecurrenceIterator iterator = new RecurrenceIterator(first, recurrenceType, last);
+        while (iterator.hasNext()) {
+            iterator.next();
+            dates++;
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.dto.TransactionDto;
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.AccountType;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response side of {@code GET /transactions}: mapping a page of loaded transactions to
+ * {@link TransactionDto}s and writing the {@code Page} as JSON with an object mapper configured
+ * the way Spring Boot configures it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransactionPageBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<Transaction> page;
+
+    private Page<TransactionDto> mapped;
+
+    @Setup
+    public void setUp() {
+        Category[] categories = new Category[8];
+        for (int i = 0; i < categories.length; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setName("Category " + i);
+            category.setColor("#FF6B6B");
+            categories[i] = category;
+        }
+        Account account = new Account();
+        account.setId(1L);
+        account.setName("Checking");
+        account.setType(AccountType.BANK);
+
+        List<Transaction> content = new ArrayList<>(pageSize);
+        LocalDate date = LocalDate.of(2024, 6, 30);
+        for (int i = 0; i < pageSize; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setAmount(new BigDecimal("12.34").add(BigDecimal.valueOf(i)));
+            transaction.setDescription("Transaction " + i);
+            transaction.setType(i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            transaction.setTransactionDate(date.minusDays(i / 3));
+            transaction.setNotes(i % 2 == 0 ? "Some notes about transaction " + i : null);
+            transaction.setCategory(categories[i % categories.length]);
+            transaction.setAccount(account);
+            content.add(transaction);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+        mapped = map(page);
+    }
+
+    @Benchmark
+    public Page<TransactionDto> mapPage() {
+        return map(page);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(mapped);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(map(page));
+    }
+
+    // Same mapping as TransactionController.getAllTransactions
+    private static Page<TransactionDto> map(Page<Transaction> page) {
+        return page.map(t -> new TransactionDto(
+                t.getId(), t.getAmount(), t.getDescription(), t.getType().name(), t.getTransactionDate(), t.getNotes(),
+                t.getCategory().getId(), t.getCategory().getName(), t.getCategory().getColor(),
+                t.getAccount().getId(), t.getAccount().getName(),
+                t.getAccount().getType() != null ? t.getAccount().getType().name() : null,
+                t.getCreatedAt()
+        ));
+    }
+}
@@ -1,20 +1,30 @@
 package com.expensetracker;
 
+import com.expensetracker.sharding.ShardingProperties;
+import com.expensetracker.startup.StartupTimings;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties(ShardingProperties.class)
 public class ExpenseTrackerApplication extends SpringBootServletInitializer {
 
     public static void main(String[] args) {
-        SpringApplication.run(ExpenseTrackerApplication.class, args);
+        SpringApplication application = new SpringApplication(ExpenseTrackerApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(StartupTimings.STEP_CAPACITY));
+        application.run(args);
         System.out.println("Expenses are tracking now...");
     }
 
     @Override
     protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {
-        return application.sources(ExpenseTrackerApplication.class);
+        return application.sources(ExpenseTrackerApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(StartupTimings.STEP_CAPACITY));
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.expensetracker.config;
+
+import com.expensetracker.event.TransactionEventBus;
+import com.expensetracker.logging.AccessLogWriter;
+import com.expensetracker.security.PasswordHashingExecutor;
+import com.expensetracker.security.RateLimitFilter;
+import com.expensetracker.service.ReportExecutor;
+import com.expensetracker.startup.StartupTimings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the counters the application already keeps for JMX as Micrometer meters, read from
+ * the components on every scrape.
+ */
+@Component
+public class ApplicationMetricsBinder implements MeterBinder {
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @Autowired
+    private TransactionEventBus transactionEventBus;
+
+    @Autowired
+    private ReportExecutor reportExecutor;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private StartupTimings startupTimings;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("expense.rate_limit.requests", rateLimitFilter, RateLimitFilter::getAllowedRequests)
+                .description("Requests admitted by the rate limiter")
+                .tags("outcome", "allowed")
+                .register(registry);
+        FunctionCounter.builder("expense.rate_limit.requests", rateLimitFilter, RateLimitFilter::getThrottledRequests)
+                .description("Requests rejected with 429 by the rate limiter")
+                .tags("outcome", "throttled")
+                .register(registry);
+
+        FunctionCounter.builder("expense.access_log.dropped", accessLogWriter, AccessLogWriter::getDroppedRecords)
+                .description("Access records dropped because the ring was full")
+                .register(registry);
+
+        FunctionCounter.builder("expense.events.published", transactionEventBus, TransactionEventBus::getPublishedEvents)
+                .description("Transaction events handed to the listeners")
+                .register(registry);
+        FunctionCounter.builder("expense.events.dropped", transactionEventBus, TransactionEventBus::getDroppedEvents)
+                .description("Transaction events dropped under back-pressure")
+                .register(registry);
+        Gauge.builder("expense.events.pending", transactionEventBus, TransactionEventBus::getPendingEvents)
+                .description("Transaction events the slowest listener has yet to process")
+                .register(registry);
+
+        Gauge.builder("expense.executor.queued", reportExecutor, ReportExecutor::getQueueSize)
+                .description("Tasks waiting for a pool thread")
+                .tags("pool", "reports")
+                .register(registry);
+        Gauge.builder("expense.executor.queued", passwordHashingExecutor, PasswordHashingExecutor::getQueueSize)
+                .description("Tasks waiting for a pool thread")
+                .tags("pool", "password-hashing")
+                .register(registry);
+
+        Gauge.builder("expense.startup.time", startupTimings, timings -> timings.getStartupMillis() / 1000.0)
+                .description("Time from launch until the application was ready")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.expensetracker.config;
+
+import com.expensetracker.entity.Category;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hit ratios of the second-level and query cache regions, from Hibernate's statistics. Exposed over
+ * JMX and logged periodically while the caches are in use.
+ */
+@Component
+@ManagedResource(objectName = "com.expensetracker:type=HibernateCacheStatistics")
+public class CacheStatisticsReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatisticsReporter.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long lastRequests;
+
+    @ManagedAttribute(description = "Category entity cache hit ratio")
+    public double getCategoryHitRatio() {
+        return regionHitRatio(Category.class.getName());
+    }
+
+    @ManagedAttribute(description = "Query cache hit ratio")
+    public double getQueryCacheHitRatio() {
+        Statistics statistics = statistics();
+        return ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+    }
+
+    @Scheduled(fixedDelayString = "${cache.statistics.log-interval-ms:600000}")
+    public void logHitRatios() {
+        Statistics statistics = statistics();
+        long requests = statistics.getSecondLevelCacheHitCount() + statistics.getSecondLevelCacheMissCount()
+                + statistics.getQueryCacheHitCount() + statistics.getQueryCacheMissCount();
+        if (requests == lastRequests) {
+            return;
+        }
+        lastRequests = requests;
+        logger.info("Hibernate cache hit ratios: category={} query={}",
+                String.format("%.3f", getCategoryHitRatio()),
+                String.format("%.3f", getQueryCacheHitRatio()));
+    }
+
+    private double regionHitRatio(String region) {
+        CacheRegionStatistics regionStatistics = statistics().getDomainDataRegionStatistics(region);
+        return regionStatistics != null ? ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount()) : 0;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
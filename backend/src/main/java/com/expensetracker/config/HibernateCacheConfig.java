@@ -0,0 +1,75 @@
+package com.expensetracker.config;
+
+import com.expensetracker.entity.Category;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * In-process JCache (Ehcache) regions for Hibernate's second-level and query caches. Every region is
+ * created here with a bounded heap; {@code missing_cache_strategy=fail} makes a newly cached entity
+ * without a region here fail at startup instead of silently getting an unbounded cache.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // Cache managers are JVM-wide by name; tests give each application context its own
+    @Value("${cache.manager-name:expense-tracker-hibernate}")
+    private String cacheManagerName;
+
+    @Value("${cache.entity.max-entries:10000}")
+    private long entityMaxEntries;
+
+    @Value("${cache.entity.ttl-seconds:3600}")
+    private long entityTtlSeconds;
+
+    @Value("${cache.query.max-entries:5000}")
+    private long queryMaxEntries;
+
+    @Value("${cache.query.ttl-seconds:600}")
+    private long queryTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create(cacheManagerName),
+                getClass().getClassLoader());
+
+        createCache(cacheManager, Category.class.getName(), entityMaxEntries, Duration.ofSeconds(entityTtlSeconds));
+        createCache(cacheManager, QUERY_RESULTS_REGION, queryMaxEntries, Duration.ofSeconds(queryTtlSeconds));
+        // Timestamps must outlive every cached query result, so this region never expires entries;
+        // it holds one entry per table
+        createCache(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+
+    private static void createCache(CacheManager cacheManager, String region, long maxEntries, Duration ttl) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries));
+        if (ttl != null) {
+            builder = builder.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl));
+        }
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(builder.build()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/**
+ * Additions to Spring Boot's Micrometer setup, which already times every request
+ * ({@code http.server.requests}), every repository method ({@code spring.data.repository.invocations})
+ * and binds Hibernate statistics and the Hikari pools; all of it is scraped from
+ * {@code /actuator/prometheus}.
+ *
+ * Requests are also tagged with the controller method that handled them. Percentile histograms are
+ * only published for the URI patterns listed in {@code metrics.http.histogram-uris}, since every
+ * histogram adds dozens of series per tag combination.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String HTTP_REQUESTS = "http.server.requests";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${metrics.http.histogram-uris:}")
+    private List<String> histogramUris;
+
+    @Value("${metrics.http.percentiles:}")
+    private double[] percentiles;
+
+    @Bean
+    public WebMvcTagsContributor handlerMethodTags() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                return Tags.of("handler", handlerName(handler));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of("handler", handlerName(handler));
+            }
+        };
+    }
+
+    @Bean
+    public MeterFilter endpointHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HTTP_REQUESTS.equals(id.getName()) || !histogramFor(id.getTag("uri"))) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(percentiles)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    private boolean histogramFor(String uri) {
+        if (uri == null) {
+            return false;
+        }
+        for (String pattern : histogramUris) {
+            if (!pattern.isEmpty() && pathMatcher.match(pattern.trim(), uri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -4,11 +4,15 @@ import com.expensetracker.dto.AccountDto;
 import com.expensetracker.entity.Account;
 import com.expensetracker.entity.User;
 import com.expensetracker.service.AccountService;
+import com.expensetracker.service.ResourceVersions;
+import com.expensetracker.service.ResourceVersions.Resource;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,13 +25,20 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public ResponseEntity<List<AccountDto>> getAllAccounts(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<AccountDto>> getAllAccounts(@AuthenticationPrincipal User user, WebRequest webRequest) {
+        String etag = resourceVersions.etag(Resource.ACCOUNTS, user.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<AccountDto> dtos = accountService.getAllAccounts(user).stream()
                 .map(a -> new AccountDto(a.getId(), a.getName(), a.getDescription(),
                         a.getType() != null ? a.getType().name() : null, a.getBalance(), a.getIsActive()))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(dtos);
     }
 
     @GetMapping("/{id}")
@@ -2,6 +2,7 @@ package com.expensetracker.controller;
 
 import com.expensetracker.entity.User;
 import com.expensetracker.service.AnalyticsService;
+import com.expensetracker.service.ReportExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/analytics")
@@ -20,8 +22,12 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    // Reports run on the report pool; the request thread is released while they execute
+    @Autowired
+    private ReportExecutor reportExecutor;
+
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboardData(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getDashboardData(
             @AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
@@ -29,11 +35,13 @@ public class AnalyticsController {
         if (startDate == null) startDate = LocalDate.now().withDayOfMonth(1);
         if (endDate == null) endDate = LocalDate.now();
         
-        return ResponseEntity.ok(analyticsService.getDashboardData(user, startDate, endDate));
+        LocalDate from = startDate, to = endDate;
+        return reportExecutor.submit(() -> analyticsService.getDashboardData(user, from, to))
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/category-spending")
-    public ResponseEntity<List<Object[]>> getCategorySpending(
+    public CompletableFuture<ResponseEntity<List<Object[]>>> getCategorySpending(
             @AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
@@ -41,11 +49,13 @@ public class AnalyticsController {
         if (startDate == null) startDate = LocalDate.now().withDayOfMonth(1);
         if (endDate == null) endDate = LocalDate.now();
         
-        return ResponseEntity.ok(analyticsService.getCategorySpending(user, startDate, endDate));
+        LocalDate from = startDate, to = endDate;
+        return reportExecutor.submit(() -> analyticsService.getCategorySpending(user, from, to))
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/monthly-trend")
-    public ResponseEntity<List<Object[]>> getMonthlyTrend(
+    public CompletableFuture<ResponseEntity<List<Object[]>>> getMonthlyTrend(
             @AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
@@ -53,12 +63,15 @@ public class AnalyticsController {
         if (startDate == null) startDate = LocalDate.now().minusMonths(12);
         if (endDate == null) endDate = LocalDate.now();
         
-        return ResponseEntity.ok(analyticsService.getMonthlyTrend(user, startDate, endDate));
+        LocalDate from = startDate, to = endDate;
+        return reportExecutor.submit(() -> analyticsService.getMonthlyTrend(user, from, to))
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/budget-status")
-    public ResponseEntity<List<Map<String, Object>>> getBudgetStatus(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(analyticsService.getBudgetStatus(user));
+    public CompletableFuture<ResponseEntity<List<Map<String, Object>>>> getBudgetStatus(@AuthenticationPrincipal User user) {
+        return reportExecutor.submit(() -> analyticsService.getBudgetStatus(user))
+                .thenApply(ResponseEntity::ok);
     }
 }
 
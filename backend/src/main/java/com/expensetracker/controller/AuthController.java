@@ -5,67 +5,101 @@ import com.expensetracker.dto.LoginRequest;
 import com.expensetracker.dto.RegisterRequest;
 import com.expensetracker.entity.User;
 import com.expensetracker.security.JwtTokenUtil;
+import com.expensetracker.security.PasswordHashingBusyException;
 import com.expensetracker.service.AuthService;
+import com.expensetracker.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private AuthService authService;
 
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
-    @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        User user = (User) authentication.getPrincipal();
-        String jwt = jwtTokenUtil.generateToken(user);
+    @Value("${security.bcrypt.retry-after-seconds:1}")
+    private int retryAfterSeconds;
 
-        return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getUsername(), 
-                user.getEmail(), user.getFirstName(), user.getLastName()));
+    // Password verification runs on the hashing pool; the servlet thread is released meanwhile
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return authService.authenticate(loginRequest.getUsername(), loginRequest.getPassword())
+                .<ResponseEntity<?>>thenApply(user -> {
+                    String jwt = jwtTokenUtil.generateToken(user);
+                    return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getUsername(),
+                            user.getEmail(), user.getFirstName(), user.getLastName()));
+                })
+                .exceptionally(this::loginFailure);
     }
 
-    @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        if (authService.existsByUsername(registerRequest.getUsername())) {
-            return ResponseEntity.badRequest().body("Error: Username is already taken!");
+    private ResponseEntity<?> loginFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PasswordHashingBusyException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body("Error: " + cause.getMessage());
         }
-
-        if (authService.existsByEmail(registerRequest.getEmail())) {
-            return ResponseEntity.badRequest().body("Error: Email is already in use!");
+        if (cause instanceof BadCredentialsException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Invalid username or password");
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
         }
+        throw new RuntimeException(cause);
+    }
 
-        User user = authService.registerUser(registerRequest);
-        
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(registerRequest.getUsername(), registerRequest.getPassword()));
+    // The unique constraints on username and email do the duplicate check; the token is issued
+    // from the saved user, so registration costs one BCrypt hash and one insert.
+    @PostMapping("/register")
+    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
+        User user;
+        try {
+            user = authService.registerUser(registerRequest);
+        } catch (DataIntegrityViolationException e) {
+            if (authService.existsByUsername(registerRequest.getUsername())) {
+                return ResponseEntity.badRequest().body("Error: Username is already taken!");
+            }
+            if (authService.existsByEmail(registerRequest.getEmail())) {
+                return ResponseEntity.badRequest().body("Error: Email is already in use!");
+            }
+            throw e;
+        }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        User authenticatedUser = (User) authentication.getPrincipal();
-        String jwt = jwtTokenUtil.generateToken(authenticatedUser);
+        String jwt = jwtTokenUtil.generateToken(user);
 
         return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getUsername(), 
                 user.getEmail(), user.getFirstName(), user.getLastName()));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authorization,
+                                    @AuthenticationPrincipal User user) {
+        // Only reachable with a valid token, which the filter has already verified
+        Claims claims = jwtTokenUtil.parseClaims(authorization.substring(7));
+        tokenRevocationService.revokeToken(claims, user.getId());
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/verify")
     public ResponseEntity<?> verifyToken(@AuthenticationPrincipal User user) {
         return ResponseEntity.ok(new JwtResponse("", user.getId(), user.getUsername(), 
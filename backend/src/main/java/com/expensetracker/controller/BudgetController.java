@@ -1,15 +1,21 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.BudgetDto;
 import com.expensetracker.entity.Budget;
 import com.expensetracker.entity.User;
 import com.expensetracker.service.BudgetService;
+import com.expensetracker.service.ResourceVersions;
+import com.expensetracker.service.ResourceVersions.Resource;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/budgets")
@@ -19,24 +25,34 @@ public class BudgetController {
     @Autowired
     private BudgetService budgetService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public ResponseEntity<List<Budget>> getAllBudgets(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(budgetService.getAllBudgets(user));
+    public ResponseEntity<List<BudgetDto>> getAllBudgets(@AuthenticationPrincipal User user, WebRequest webRequest) {
+        String etag = resourceVersions.etag(Resource.BUDGETS, user.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<BudgetDto> dtos = budgetService.getAllBudgets(user).stream()
+                .map(BudgetDto::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(dtos);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Budget> getBudget(@AuthenticationPrincipal User user, @PathVariable Long id) {
-        return ResponseEntity.ok(budgetService.getBudget(user, id));
+    public ResponseEntity<BudgetDto> getBudget(@AuthenticationPrincipal User user, @PathVariable Long id) {
+        return ResponseEntity.ok(new BudgetDto(budgetService.getBudget(user, id)));
     }
 
     @PostMapping
-    public ResponseEntity<Budget> createBudget(@AuthenticationPrincipal User user, @Valid @RequestBody Budget budget) {
-        return ResponseEntity.ok(budgetService.createBudget(user, budget));
+    public ResponseEntity<BudgetDto> createBudget(@AuthenticationPrincipal User user, @Valid @RequestBody Budget budget) {
+        return ResponseEntity.ok(new BudgetDto(budgetService.createBudget(user, budget)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Budget> updateBudget(@AuthenticationPrincipal User user, @PathVariable Long id, @Valid @RequestBody Budget budget) {
-        return ResponseEntity.ok(budgetService.updateBudget(user, id, budget));
+    public ResponseEntity<BudgetDto> updateBudget(@AuthenticationPrincipal User user, @PathVariable Long id, @Valid @RequestBody Budget budget) {
+        return ResponseEntity.ok(new BudgetDto(budgetService.updateBudget(user, id, budget)));
     }
 
     @DeleteMapping("/{id}")
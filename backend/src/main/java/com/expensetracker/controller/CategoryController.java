@@ -4,11 +4,15 @@ import com.expensetracker.dto.CategoryDto;
 import com.expensetracker.entity.Category;
 import com.expensetracker.entity.User;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ResourceVersions;
+import com.expensetracker.service.ResourceVersions.Resource;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,12 +25,19 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategories(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<CategoryDto>> getAllCategories(@AuthenticationPrincipal User user, WebRequest webRequest) {
+        String etag = resourceVersions.etag(Resource.CATEGORIES, user.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<CategoryDto> dtos = categoryService.getAllCategories(user).stream()
                 .map(c -> new CategoryDto(c.getId(), c.getName(), c.getDescription(), c.getColor(), c.getIsDefault()))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(dtos);
     }
 
     @GetMapping("/{id}")
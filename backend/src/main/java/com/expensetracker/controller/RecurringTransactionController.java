@@ -1,17 +1,27 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.CashFlowCalendarDto;
 import com.expensetracker.dto.RecurringTransactionDto;
 import com.expensetracker.dto.RecurringTransactionRequest;
 import com.expensetracker.entity.RecurringTransaction;
 import com.expensetracker.entity.User;
+import com.expensetracker.service.CashFlowCalendarService;
 import com.expensetracker.service.RecurringTransactionService;
+import com.expensetracker.service.ResourceVersions;
+import com.expensetracker.service.ResourceVersions.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,24 +32,49 @@ public class RecurringTransactionController {
     @Autowired
     private RecurringTransactionService recurringTransactionService;
 
+    @Autowired
+    private CashFlowCalendarService cashFlowCalendarService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public ResponseEntity<List<RecurringTransactionDto>> getAllRecurringTransactions(Authentication authentication) {
+    public ResponseEntity<List<RecurringTransactionDto>> getAllRecurringTransactions(Authentication authentication, WebRequest webRequest) {
         User user = (User) authentication.getPrincipal();
+        String etag = resourceVersions.etag(Resource.RECURRING_TRANSACTIONS, user.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<RecurringTransaction> recurringTransactions = recurringTransactionService.getAllRecurringTransactions(user);
         List<RecurringTransactionDto> dtos = recurringTransactions.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(dtos);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<RecurringTransactionDto>> getActiveRecurringTransactions(Authentication authentication) {
+    public ResponseEntity<List<RecurringTransactionDto>> getActiveRecurringTransactions(Authentication authentication, WebRequest webRequest) {
         User user = (User) authentication.getPrincipal();
+        String etag = resourceVersions.etag(Resource.RECURRING_TRANSACTIONS, user.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<RecurringTransaction> recurringTransactions = recurringTransactionService.getActiveRecurringTransactions(user);
         List<RecurringTransactionDto> dtos = recurringTransactions.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(dtos);
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<CashFlowCalendarDto> getCalendar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        if (from == null) from = LocalDate.now();
+        if (to == null) to = from.plusMonths(1);
+        return ResponseEntity.ok(cashFlowCalendarService.getCalendar(user, from, to));
     }
 
     @GetMapping("/{id}")
@@ -78,12 +113,22 @@ public class RecurringTransactionController {
     }
 
     @PostMapping("/{id}/execute")
-    public ResponseEntity<Void> executeRecurringTransaction(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<Void> executeRecurringTransaction(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate occurrenceDate,
+            Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        recurringTransactionService.executeRecurringTransaction(id, user);
+        recurringTransactionService.executeRecurringTransaction(id, user, occurrenceDate);
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{id}/catch-up")
+    public ResponseEntity<Map<String, Integer>> catchUpRecurringTransaction(@PathVariable Long id, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        int posted = recurringTransactionService.catchUpRecurringTransaction(id, user);
+        return ResponseEntity.ok(Collections.singletonMap("posted", posted));
+    }
+
     private RecurringTransactionDto convertToDto(RecurringTransaction recurringTransaction) {
         RecurringTransactionDto dto = new RecurringTransactionDto();
         dto.setId(recurringTransaction.getId());
@@ -4,6 +4,7 @@ import com.expensetracker.dto.TransactionDto;
 import com.expensetracker.dto.TransactionRequest;
 import com.expensetracker.entity.Transaction;
 import com.expensetracker.entity.User;
+import com.expensetracker.service.ReportExecutor;
 import com.expensetracker.service.TransactionService;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/transactions")
@@ -25,6 +27,9 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ReportExecutor reportExecutor;
+
     @GetMapping
     public ResponseEntity<Page<TransactionDto>> getAllTransactions(
             @AuthenticationPrincipal User user,
@@ -43,24 +48,25 @@ public class TransactionController {
         return ResponseEntity.ok(mapped);
     }
 
+    // Date-range searches can span years, so they run on the report pool like the analytics
     @GetMapping("/search")
-    public ResponseEntity<List<TransactionDto>> searchTransactions(
+    public CompletableFuture<ResponseEntity<List<TransactionDto>>> searchTransactions(
             @AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long accountId) {
         if (user == null) {
-            return ResponseEntity.status(401).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).build());
         }
-        List<Transaction> list = transactionService.searchTransactions(user, startDate, endDate, categoryId, accountId);
-        return ResponseEntity.ok(list.stream().map(t -> new TransactionDto(
-                t.getId(), t.getAmount(), t.getDescription(), t.getType().name(), t.getTransactionDate(), t.getNotes(),
-                t.getCategory().getId(), t.getCategory().getName(), t.getCategory().getColor(),
-                t.getAccount().getId(), t.getAccount().getName(),
-                t.getAccount().getType() != null ? t.getAccount().getType().name() : null,
-                t.getCreatedAt()
-        )).toList());
+        return reportExecutor.submit(() -> transactionService.searchTransactions(user, startDate, endDate, categoryId, accountId))
+                .thenApply(list -> ResponseEntity.ok(list.stream().map(t -> new TransactionDto(
+                        t.getId(), t.getAmount(), t.getDescription(), t.getType().name(), t.getTransactionDate(), t.getNotes(),
+                        t.getCategory().getId(), t.getCategory().getName(), t.getCategory().getColor(),
+                        t.getAccount().getId(), t.getAccount().getName(),
+                        t.getAccount().getType() != null ? t.getAccount().getType().name() : null,
+                        t.getCreatedAt()
+                )).toList()));
     }
 
     @GetMapping("/{id}")
@@ -1,9 +1,11 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.ChangePasswordRequest;
+import com.expensetracker.dto.JwtResponse;
 import com.expensetracker.dto.UserProfileDto;
 import com.expensetracker.dto.UserProfileRequest;
 import com.expensetracker.entity.User;
+import com.expensetracker.security.JwtTokenUtil;
 import com.expensetracker.service.UserProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +22,9 @@ public class UserProfileController {
     @Autowired
     private UserProfileService userProfileService;
 
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
     @GetMapping
     public ResponseEntity<UserProfileDto> getUserProfile(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -35,10 +40,12 @@ public class UserProfileController {
     }
 
     @PostMapping("/change-password")
-    public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordRequest request, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        userProfileService.changePassword(user, request);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<JwtResponse> changePassword(@Valid @RequestBody ChangePasswordRequest request, Authentication authentication) {
+        User user = userProfileService.changePassword((User) authentication.getPrincipal(), request);
+        // Tokens issued before the change are no longer accepted; hand the caller a fresh one
+        String jwt = jwtTokenUtil.generateToken(user);
+        return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getUsername(),
+                user.getEmail(), user.getFirstName(), user.getLastName()));
     }
 }
 
@@ -0,0 +1,32 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AccountProjectionDto {
+    private Long accountId;
+    private String accountName;
+    private BigDecimal currentBalance;
+    private BigDecimal openingBalance;
+    private List<DailyBalanceDto> days = new ArrayList<>();
+
+    public AccountProjectionDto() {}
+
+    public AccountProjectionDto(Long accountId, String accountName, BigDecimal currentBalance) {
+        this.accountId = accountId;
+        this.accountName = accountName;
+        this.currentBalance = currentBalance;
+    }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public String getAccountName() { return accountName; }
+    public void setAccountName(String accountName) { this.accountName = accountName; }
+    public BigDecimal getCurrentBalance() { return currentBalance; }
+    public void setCurrentBalance(BigDecimal currentBalance) { this.currentBalance = currentBalance; }
+    public BigDecimal getOpeningBalance() { return openingBalance; }
+    public void setOpeningBalance(BigDecimal openingBalance) { this.openingBalance = openingBalance; }
+    public List<DailyBalanceDto> getDays() { return days; }
+    public void setDays(List<DailyBalanceDto> days) { this.days = days; }
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.BudgetType;
+import com.expensetracker.entity.Category;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class BudgetDto {
+    private Long id;
+    private BigDecimal amount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BudgetType type;
+    private Integer alertThreshold;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private CategoryDto category; // null for total budget
+
+    public BudgetDto() {}
+
+    // Expects the category to be fetched already; see the entity graphs on BudgetRepository
+    public BudgetDto(Budget budget) {
+        this.id = budget.getId();
+        this.amount = budget.getAmount();
+        this.startDate = budget.getStartDate();
+        this.endDate = budget.getEndDate();
+        this.type = budget.getType();
+        this.alertThreshold = budget.getAlertThreshold();
+        this.isActive = budget.getIsActive();
+        this.createdAt = budget.getCreatedAt();
+        this.updatedAt = budget.getUpdatedAt();
+        Category c = budget.getCategory();
+        if (c != null) {
+            this.category = new CategoryDto(c.getId(), c.getName(), c.getDescription(), c.getColor(), c.getIsDefault());
+        }
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public BudgetType getType() { return type; }
+    public void setType(BudgetType type) { this.type = type; }
+    public Integer getAlertThreshold() { return alertThreshold; }
+    public void setAlertThreshold(Integer alertThreshold) { this.alertThreshold = alertThreshold; }
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public CategoryDto getCategory() { return category; }
+    public void setCategory(CategoryDto category) { this.category = category; }
+}
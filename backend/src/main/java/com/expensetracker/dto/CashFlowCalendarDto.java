@@ -0,0 +1,28 @@
+package com.expensetracker.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CashFlowCalendarDto {
+    private LocalDate from;
+    private LocalDate to;
+    private List<ProjectedOccurrenceDto> occurrences = new ArrayList<>();
+    private List<AccountProjectionDto> accounts = new ArrayList<>();
+
+    public CashFlowCalendarDto() {}
+
+    public CashFlowCalendarDto(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    public List<ProjectedOccurrenceDto> getOccurrences() { return occurrences; }
+    public void setOccurrences(List<ProjectedOccurrenceDto> occurrences) { this.occurrences = occurrences; }
+    public List<AccountProjectionDto> getAccounts() { return accounts; }
+    public void setAccounts(List<AccountProjectionDto> accounts) { this.accounts = accounts; }
+}
@@ -0,0 +1,29 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyBalanceDto {
+    private LocalDate date;
+    private BigDecimal inflow;
+    private BigDecimal outflow;
+    private BigDecimal balance;
+
+    public DailyBalanceDto() {}
+
+    public DailyBalanceDto(LocalDate date, BigDecimal inflow, BigDecimal outflow, BigDecimal balance) {
+        this.date = date;
+        this.inflow = inflow;
+        this.outflow = outflow;
+        this.balance = balance;
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public BigDecimal getInflow() { return inflow; }
+    public void setInflow(BigDecimal inflow) { this.inflow = inflow; }
+    public BigDecimal getOutflow() { return outflow; }
+    public void setOutflow(BigDecimal outflow) { this.outflow = outflow; }
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class ProjectedOccurrenceDto {
+    private LocalDate date;
+    private Long recurringTransactionId;
+    private String description;
+    private BigDecimal amount;
+    private String type;
+    private Long accountId;
+
+    public ProjectedOccurrenceDto() {}
+
+    public ProjectedOccurrenceDto(LocalDate date, Long recurringTransactionId, String description,
+                                  BigDecimal amount, String type, Long accountId) {
+        this.date = date;
+        this.recurringTransactionId = recurringTransactionId;
+        this.description = description;
+        this.amount = amount;
+        this.type = type;
+        this.accountId = accountId;
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public Long getRecurringTransactionId() { return recurringTransactionId; }
+    public void setRecurringTransactionId(Long recurringTransactionId) { this.recurringTransactionId = recurringTransactionId; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+}
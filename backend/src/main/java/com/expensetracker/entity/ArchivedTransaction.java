@@ -0,0 +1,144 @@
+package com.expensetracker.entity;
+
+import javax.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction moved out of {@code transactions} by the archival job. Rows keep their original id
+ * and are read-only; {@link com.expensetracker.repository.TransactionRepository} reads return them
+ * as {@link Transaction}s alongside the live rows. On MySQL the table is stored compressed.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+        @Index(name = "idx_transactions_archive_user_date", columnList = "user_id, transaction_date")
+})
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @Column(precision = 10, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(length = 200)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Category category;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Account account;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recurring_transaction_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private RecurringTransaction recurringTransaction;
+
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    public ArchivedTransaction() {
+    }
+
+    // Detached copy for callers of the transaction reads; not meant to be saved
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setType(type);
+        transaction.setTransactionDate(transactionDate);
+        transaction.setNotes(notes);
+        transaction.setCreatedAt(createdAt);
+        transaction.setUpdatedAt(updatedAt);
+        transaction.setUser(user);
+        transaction.setCategory(category);
+        transaction.setAccount(account);
+        transaction.setRecurringTransaction(recurringTransaction);
+        transaction.setOccurrenceDate(occurrenceDate);
+        return transaction;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public RecurringTransaction getRecurringTransaction() {
+        return recurringTransaction;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.expensetracker.entity;
+
+import javax.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Claim on one scheduled occurrence of a recurring transaction. Inserted in the same transaction as
+ * the posted transaction, so the unique key stops a second node from posting it again.
+ */
+@Entity
+@Table(name = "recurring_occurrences", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_recurring_occurrences", columnNames = {"recurring_transaction_id", "occurrence_date"})
+})
+public class RecurringOccurrence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recurring_transaction_id", nullable = false)
+    private Long recurringTransactionId;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    public RecurringOccurrence() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRecurringTransactionId() {
+        return recurringTransactionId;
+    }
+
+    public void setRecurringTransactionId(Long recurringTransactionId) {
+        this.recurringTransactionId = recurringTransactionId;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+}
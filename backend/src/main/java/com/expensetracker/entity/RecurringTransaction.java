@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "recurring_transactions")
+@Table(name = "recurring_transactions", indexes = {
+        @Index(name = "idx_recurring_due", columnList = "is_active, next_due_date, id"),
+        @Index(name = "idx_recurring_updated", columnList = "updated_at, id")
+})
 public class RecurringTransaction {
     
     @Id
@@ -57,7 +60,7 @@ public class RecurringTransaction {
     private LocalDateTime updatedAt;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
     
     @ManyToOne(fetch = FetchType.LAZY)
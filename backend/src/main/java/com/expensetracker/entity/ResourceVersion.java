@@ -0,0 +1,60 @@
+package com.expensetracker.entity;
+
+import javax.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last-change version of one of a user's list resources, shared between instances so every node
+ * issues the same ETag for the same data. Keyed by {@code <resource>:<userId>}.
+ */
+@Entity
+@Table(name = "resource_versions", indexes = {
+        @Index(name = "idx_resource_versions_updated_at", columnList = "updated_at")
+})
+public class ResourceVersion {
+
+    @Id
+    @Column(name = "resource_key", length = 64)
+    private String key;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ResourceVersion() {
+    }
+
+    public ResourceVersion(String key, Long version, LocalDateTime updatedAt) {
+        this.key = key;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
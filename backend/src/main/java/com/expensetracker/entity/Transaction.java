@@ -11,8 +11,16 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+/**
+ * On MySQL the table is range-partitioned by year of transaction_date (see
+ * {@link com.expensetracker.service.TransactionPartitionManager}). A partitioned table cannot have
+ * foreign keys or unique keys that leave out the partitioning column, so the associations are
+ * mapped without constraints and occurrence uniqueness lives in {@link RecurringOccurrence}.
+ */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, transaction_date")
+})
 public class Transaction {
     
     @Id
@@ -45,24 +53,28 @@ public class Transaction {
     private LocalDateTime updatedAt;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnoreProperties({"transactions", "budgets", "accounts", "categories"})
     private User user;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "category_id", nullable = false)
+    @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnoreProperties({"transactions", "budgets", "user"})
     private Category category;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "account_id", nullable = false)
+    @JoinColumn(name = "account_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnoreProperties({"transactions", "user"})
     private Account account;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "recurring_transaction_id")
+    @JoinColumn(name = "recurring_transaction_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private RecurringTransaction recurringTransaction;
     
+    // Scheduled date of the recurring occurrence this transaction posts; null for manual entries
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+    
     public Transaction() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -169,6 +181,14 @@ public class Transaction {
     public void setRecurringTransaction(RecurringTransaction recurringTransaction) {
         this.recurringTransaction = recurringTransaction;
     }
+    
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+    
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
 }
 
 
@@ -45,6 +45,11 @@ public class User implements UserDetails {
     @Size(max = 100)
     private String lastName;
     
+    // Bumped whenever existing tokens must stop being accepted (e.g. password change)
+    @Column(name = "security_version", columnDefinition = "integer default 0")
+    @JsonIgnore
+    private Integer securityVersion = 0;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -152,6 +157,14 @@ public class User implements UserDetails {
         this.lastName = lastName;
     }
     
+    public Integer getSecurityVersion() {
+        return securityVersion;
+    }
+    
+    public void setSecurityVersion(Integer securityVersion) {
+        this.securityVersion = securityVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,149 @@
+package com.expensetracker.event;
+
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.TransactionType;
+import com.expensetracker.sharding.ShardContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A committed change to one transaction row. Created events carry only {@link #getAfter()}, deleted
+ * events only {@link #getBefore()}, updated events both. Events are immutable, so they can be handed
+ * to every listener as they are.
+ */
+public final class TransactionEvent {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Kind kind;
+    private final Long userId;
+    // Null for occurrences posted in a JDBC batch, whose generated ids are not read back
+    private final Long transactionId;
+    private final Long recurringTransactionId;
+    private final Snapshot before;
+    private final Snapshot after;
+    private final int shard;
+    private final LocalDateTime occurredAt;
+
+    private TransactionEvent(Kind kind, Long userId, Long transactionId, Long recurringTransactionId,
+                             Snapshot before, Snapshot after) {
+        this.kind = kind;
+        this.userId = userId;
+        this.transactionId = transactionId;
+        this.recurringTransactionId = recurringTransactionId;
+        this.before = before;
+        this.after = after;
+        this.shard = ShardContext.current();
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public static TransactionEvent created(Transaction transaction) {
+        return new TransactionEvent(Kind.CREATED, transaction.getUser().getId(), transaction.getId(),
+                recurringId(transaction), null, Snapshot.of(transaction));
+    }
+
+    public static TransactionEvent created(Long userId, Long recurringTransactionId, Snapshot after) {
+        return new TransactionEvent(Kind.CREATED, userId, null, recurringTransactionId, null, after);
+    }
+
+    public static TransactionEvent updated(Snapshot before, Transaction transaction) {
+        return new TransactionEvent(Kind.UPDATED, transaction.getUser().getId(), transaction.getId(),
+                recurringId(transaction), before, Snapshot.of(transaction));
+    }
+
+    public static TransactionEvent deleted(Transaction transaction) {
+        return new TransactionEvent(Kind.DELETED, transaction.getUser().getId(), transaction.getId(),
+                recurringId(transaction), Snapshot.of(transaction), null);
+    }
+
+    private static Long recurringId(Transaction transaction) {
+        return transaction.getRecurringTransaction() != null ? transaction.getRecurringTransaction().getId() : null;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public Long getRecurringTransactionId() {
+        return recurringTransactionId;
+    }
+
+    public Snapshot getBefore() {
+        return before;
+    }
+
+    public Snapshot getAfter() {
+        return after;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " transaction " + transactionId + " of user " + userId;
+    }
+
+    /**
+     * The fields of a transaction that side effects (totals, balances, budgets) depend on.
+     */
+    public static final class Snapshot {
+
+        private final BigDecimal amount;
+        private final TransactionType type;
+        private final LocalDate transactionDate;
+        private final Long categoryId;
+        private final Long accountId;
+
+        public Snapshot(BigDecimal amount, TransactionType type, LocalDate transactionDate,
+                        Long categoryId, Long accountId) {
+            this.amount = amount;
+            this.type = type;
+            this.transactionDate = transactionDate;
+            this.categoryId = categoryId;
+            this.accountId = accountId;
+        }
+
+        public static Snapshot of(Transaction transaction) {
+            return new Snapshot(transaction.getAmount(), transaction.getType(), transaction.getTransactionDate(),
+                    transaction.getCategory().getId(), transaction.getAccount().getId());
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public TransactionType getType() {
+            return type;
+        }
+
+        public LocalDate getTransactionDate() {
+            return transactionDate;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.expensetracker.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers {@link TransactionEvent}s to every {@link TransactionEventListener} bean, off the request
+ * threads and in batches.
+ *
+ * Events published inside a transaction are held until it commits and dropped on rollback, so
+ * listeners only ever see changes that are visible in the database. They then go into a bounded
+ * ring of preallocated slots shared by all listeners. Each listener has a consumer thread with its
+ * own position in the ring; it takes every event published since its last batch (up to
+ * {@code events.batch-size}) in one go. A slot is reused only once every listener is past it, so
+ * when the slowest listener falls a full ring behind, publishers wait up to
+ * {@code events.publish-timeout-ms} for room and then drop the event and count it. Publishing
+ * happens after commit, so that wait never holds database locks.
+ */
+@Component
+@ManagedResource(objectName = "com.expensetracker:type=TransactionEventBus")
+public class TransactionEventBus implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionEventBus.class);
+
+    @Autowired
+    private ListableBeanFactory beanFactory;
+
+    @Value("${events.batch-size:256}")
+    private int batchSize;
+
+    @Value("${events.publish-timeout-ms:100}")
+    private long publishTimeoutMs;
+
+    private final Slot[] slots;
+
+    private final int mask;
+
+    private final AtomicLong claimPosition = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile List<Consumer> consumers = Collections.emptyList();
+
+    private volatile boolean running;
+
+    public TransactionEventBus(@Value("${events.buffer-size:8192}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    // Listeners are looked up once every singleton exists, so they may depend on the services that publish
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, TransactionEventListener> listeners = beanFactory.getBeansOfType(TransactionEventListener.class);
+        List<Consumer> started = new ArrayList<>();
+        listeners.forEach((name, listener) -> started.add(new Consumer(name, listener)));
+        consumers = started;
+        running = true;
+        for (Consumer consumer : started) {
+            consumer.thread.start();
+        }
+        logger.info("Transaction events go to {} listener(s): {}", listeners.size(), listeners.keySet());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+        for (Consumer consumer : consumers) {
+            consumer.thread.join(1000);
+        }
+    }
+
+    /**
+     * Publishes the event once the current transaction commits, or right away without one.
+     */
+    public void publish(TransactionEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<TransactionEvent> pending = (List<TransactionEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<TransactionEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(TransactionEventBus.this::enqueue);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionEventBus.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    @ManagedAttribute(description = "Events handed to the listeners")
+    public long getPublishedEvents() {
+        return published.sum();
+    }
+
+    @ManagedAttribute(description = "Events dropped because the slowest listener was a full ring behind")
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    @ManagedAttribute(description = "Events the slowest listener has yet to process")
+    public long getPendingEvents() {
+        return claimPosition.get() - slowestPosition();
+    }
+
+    @ManagedAttribute(description = "Listener batches that ended in an exception")
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    private void enqueue(TransactionEvent event) {
+        if (consumers.isEmpty()) {
+            return;
+        }
+
+        long deadline = 0;
+        while (true) {
+            long position = claimPosition.get();
+            if (position - slowestPosition() >= slots.length) {
+                // Back-pressure: give the slowest listener a moment to free a slot
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + publishTimeoutMs * 1_000_000L;
+                } else if (now - deadline > 0 || !running) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(50_000L);
+            } else if (claimPosition.compareAndSet(position, position + 1)) {
+                Slot slot = slots[(int) (position & mask)];
+                slot.event = event;
+                slot.sequence = position;
+                published.increment();
+                return;
+            }
+        }
+    }
+
+    private long slowestPosition() {
+        long slowest = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            slowest = Math.min(slowest, consumer.position);
+        }
+        return slowest == Long.MAX_VALUE ? claimPosition.get() : slowest;
+    }
+
+    private static final class Slot {
+        // Position of the event in the slot; -1 until the first one is published
+        private volatile long sequence = -1;
+        private TransactionEvent event;
+    }
+
+    private final class Consumer implements Runnable {
+
+        private final String name;
+
+        private final TransactionEventListener listener;
+
+        private final Thread thread;
+
+        // Next ring position this listener reads
+        private volatile long position;
+
+        private final List<TransactionEvent> batch = new ArrayList<>();
+
+        private Consumer(String name, TransactionEventListener listener) {
+            this.name = name;
+            this.listener = listener;
+            this.thread = new Thread(this, "transaction-events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                if (drainBatch()) {
+                    continue;
+                }
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }
+
+        private boolean drainBatch() {
+            long next = position;
+            while (batch.size() < batchSize) {
+                Slot slot = slots[(int) (next & mask)];
+                if (slot.sequence != next) {
+                    break;
+                }
+                batch.add(slot.event);
+                next++;
+            }
+            if (batch.isEmpty()) {
+                return false;
+            }
+
+            try {
+                listener.onTransactionEvents(new ArrayList<>(batch));
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                logger.warn("Listener {} failed on {} transaction events: {}", name, batch.size(), e.getMessage());
+            }
+            batch.clear();
+            position = next;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.expensetracker.event;
+
+import java.util.List;
+
+/**
+ * Receives committed transaction changes from the {@link TransactionEventBus}. Any bean implementing
+ * this interface is registered automatically and gets its own consumer thread.
+ *
+ * Batches arrive in publication order, at most {@code events.batch-size} at a time. They are
+ * delivered outside any transaction and without a current shard; use {@link TransactionEvent#getShard()}
+ * to get back to the user's data. Events are not persisted, so a listener that must never miss one
+ * has to be able to rebuild its state from the database (after a restart, for instance).
+ */
+public interface TransactionEventListener {
+
+    void onTransactionEvents(List<TransactionEvent> events);
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts committed transaction changes ({@code expense.transactions}) by kind, type and whether a
+ * user or a recurring rule made them. Counting happens on the event bus thread, off the write path.
+ */
+@Component
+public class TransactionEventMetrics implements TransactionEventListener {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void onTransactionEvents(List<TransactionEvent> events) {
+        for (TransactionEvent event : events) {
+            TransactionEvent.Snapshot snapshot = event.getAfter() != null ? event.getAfter() : event.getBefore();
+            Counter.builder("expense.transactions")
+                    .description("Committed transaction changes")
+                    .tags("kind", event.getKind().name().toLowerCase(),
+                            "type", snapshot.getType().name().toLowerCase(),
+                            "source", event.getRecurringTransactionId() != null ? "recurring" : "user")
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.expensetracker.logging;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Outermost filter: times the whole request and hands one record per request to
+ * {@link AccessLogWriter}. {@link AccessLogInterceptor} contributes the user id and the time spent
+ * in the controller, so the record can split filter-chain time from handler time.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    static final String START_ATTRIBUTE = AccessLogFilter.class.getName() + ".start";
+
+    static final String HANDLER_NANOS_ATTRIBUTE = AccessLogFilter.class.getName() + ".handlerNanos";
+
+    static final String USER_ID_ATTRIBUTE = AccessLogFilter.class.getName() + ".userId";
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        request.setAttribute(START_ATTRIBUTE, start);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The response is finished on another thread; log when it completes
+                request.getAsyncContext().addListener(new CompletionListener(request, response));
+            } else {
+                record(request, response);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response) {
+        long total = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+        Object handlerNanos = request.getAttribute(HANDLER_NANOS_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+
+        accessLogWriter.append(request.getMethod(), path, (Long) request.getAttribute(USER_ID_ATTRIBUTE),
+                response.getStatus(), total, handlerNanos != null ? (Long) handlerNanos : -1L);
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
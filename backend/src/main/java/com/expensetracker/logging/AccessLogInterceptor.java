@@ -0,0 +1,52 @@
+package com.expensetracker.logging;
+
+import com.expensetracker.entity.User;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Measures the controller part of a request for {@link AccessLogFilter}. It runs inside the
+ * security filter chain, so this is also where the authenticated user id is captured.
+ */
+@Component
+public class AccessLogInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String HANDLER_START_ATTRIBUTE = AccessLogInterceptor.class.getName() + ".start";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(HANDLER_START_ATTRIBUTE, System.nanoTime());
+        if (request.getAttribute(AccessLogFilter.USER_ID_ATTRIBUTE) == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User) {
+                request.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, ((User) authentication.getPrincipal()).getId());
+            }
+        }
+        return true;
+    }
+
+    // Async handlers run in two dispatches; the handler time accumulates across both of them
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        addHandlerTime(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        addHandlerTime(request);
+    }
+
+    private static void addHandlerTime(HttpServletRequest request) {
+        Object start = request.getAttribute(HANDLER_START_ATTRIBUTE);
+        if (start != null) {
+            Object previous = request.getAttribute(AccessLogFilter.HANDLER_NANOS_ATTRIBUTE);
+            long elapsed = System.nanoTime() - (Long) start;
+            request.setAttribute(AccessLogFilter.HANDLER_NANOS_ATTRIBUTE,
+                    previous != null ? (Long) previous + elapsed : elapsed);
+        }
+    }
+}
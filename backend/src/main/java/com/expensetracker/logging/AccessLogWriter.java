@@ -0,0 +1,187 @@
+package com.expensetracker.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands access records from request threads to a single background writer through a bounded ring
+ * of preallocated slots. Request threads only claim a slot and copy a few fields into it; formatting
+ * and the actual log I/O happen on the writer thread. When the ring is full the record is dropped
+ * and counted rather than making the request wait.
+ *
+ * The ring is the classic bounded MPMC sequence queue with a single consumer: every slot carries a
+ * sequence number telling producers and the consumer whose turn it is.
+ */
+@Component
+@ManagedResource(objectName = "com.expensetracker:type=AccessLogWriter")
+public class AccessLogWriter {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private final Slot[] slots;
+
+    private final int mask;
+
+    private final AtomicLong enqueuePosition = new AtomicLong();
+
+    private volatile long dequeuePosition;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    public AccessLogWriter(@Value("${access-log.buffer-size:8192}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(1000);
+    }
+
+    /**
+     * Records one request. Never blocks; returns false if the record was dropped.
+     */
+    public boolean append(String method, String path, Long userId, int status,
+                          long totalNanos, long handlerNanos) {
+        while (true) {
+            long position = enqueuePosition.get();
+            Slot slot = slots[(int) (position & mask)];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    slot.method = method;
+                    slot.path = path;
+                    slot.userId = userId != null ? userId : -1L;
+                    slot.status = status;
+                    slot.totalNanos = totalNanos;
+                    slot.handlerNanos = handlerNanos;
+                    slot.sequence = position + 1;
+                    return true;
+                }
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "Access records dropped because the ring was full")
+    public long getDroppedRecords() {
+        return dropped.sum();
+    }
+
+    @ManagedAttribute(description = "Access records waiting to be written")
+    public long getPendingRecords() {
+        return enqueuePosition.get() - dequeuePosition;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            if (drainOne()) {
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    private boolean drainOne() {
+        Slot slot = slots[(int) (dequeuePosition & mask)];
+        if (slot.sequence != dequeuePosition + 1) {
+            return false;
+        }
+        try {
+            write(slot);
+        } catch (RuntimeException e) {
+            logger.warn("Could not write access log record: {}", e.getMessage());
+        }
+        slot.method = null;
+        slot.path = null;
+        slot.sequence = dequeuePosition + mask + 1;
+        dequeuePosition++;
+        return true;
+    }
+
+    private void write(Slot slot) {
+        if (!accessLogger.isInfoEnabled()) {
+            return;
+        }
+        line.setLength(0);
+        line.append("method=").append(slot.method)
+            .append(" path=").append(slot.path)
+            .append(" user=");
+        if (slot.userId >= 0) {
+            line.append(slot.userId);
+        } else {
+            line.append('-');
+        }
+        line.append(" status=").append(slot.status);
+        appendMillis(" total_ms=", slot.totalNanos);
+        if (slot.handlerNanos >= 0) {
+            appendMillis(" filters_ms=", slot.totalNanos - slot.handlerNanos);
+            appendMillis(" handler_ms=", slot.handlerNanos);
+        }
+        accessLogger.info(line.toString());
+    }
+
+    private void appendMillis(String key, long nanos) {
+        long micros = nanos / 1000;
+        line.append(key).append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    private static final class Slot {
+        private volatile long sequence;
+        private String method;
+        private String path;
+        private long userId;
+        private int status;
+        private long totalNanos;
+        private long handlerNanos;
+
+        private Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.expensetracker.repository;
 import com.expensetracker.entity.Account;
 import com.expensetracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
@@ -13,6 +17,13 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUserAndIsActiveTrueOrderByName(User user);
     
     List<Account> findByUserOrderByName(User user);
+
+    // Applied in the database so concurrent postings add up instead of overwriting each other;
+    // returns 0 when the change would take the balance below zero
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta, a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.id = :id AND a.balance + :delta >= 0")
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
 
 
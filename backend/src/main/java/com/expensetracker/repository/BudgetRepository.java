@@ -2,6 +2,7 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.Budget;
 import com.expensetracker.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,14 +10,20 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     
+    @EntityGraph(attributePaths = "category")
     List<Budget> findByUserAndIsActiveTrueOrderByStartDateDesc(User user);
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Budget> findWithCategoryById(Long id);
     
     List<Budget> findByUserOrderByStartDateDesc(User user);
     
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT b FROM Budget b WHERE b.user = :user AND b.isActive = true AND :date BETWEEN b.startDate AND b.endDate")
     List<Budget> findActiveBudgetsForDate(@Param("user") User user, @Param("date") LocalDate date);
     
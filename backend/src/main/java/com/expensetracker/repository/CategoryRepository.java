@@ -4,17 +4,23 @@ import com.expensetracker.entity.Category;
 import com.expensetracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    // Served from the query cache; any write to categories invalidates it through the timestamps region
     @Query("SELECT c FROM Category c WHERE c.user = :user OR c.isDefault = true ORDER BY c.name")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Category> findByUserOrIsDefaultTrueOrderByName(@Param("user") User user);
 
+    List<Category> findByIsDefaultTrue();
+
     boolean existsByNameAndUser(String name, User user);
 }
 
@@ -0,0 +1,8 @@
+package com.expensetracker.repository;
+
+/**
+ * Marks repositories of global tables, which live on the directory shard regardless of the shard
+ * the calling thread works against (see {@code DirectoryRepositoryPostProcessor}).
+ */
+public interface DirectoryRepository {
+}
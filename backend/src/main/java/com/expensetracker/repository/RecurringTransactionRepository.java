@@ -2,23 +2,64 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.RecurringTransaction;
 import com.expensetracker.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
     
+    @EntityGraph(attributePaths = {"category", "account"})
     List<RecurringTransaction> findByUserAndIsActiveTrueOrderByNextDueDateAsc(User user);
     
+    @EntityGraph(attributePaths = {"category", "account"})
     List<RecurringTransaction> findByUserOrderByNextDueDateAsc(User user);
+
+    @EntityGraph(attributePaths = {"category", "account"})
+    Optional<RecurringTransaction> findWithCategoryAndAccountById(Long id);
     
     @Query("SELECT rt FROM RecurringTransaction rt WHERE rt.user = :user AND rt.isActive = true AND rt.nextDueDate <= :date AND (rt.endDate IS NULL OR rt.endDate >= :date)")
     List<RecurringTransaction> findDueRecurringTransactions(@Param("user") User user, @Param("date") LocalDate date);
+
+    @Query("SELECT rt FROM RecurringTransaction rt JOIN FETCH rt.account " +
+           "WHERE rt.isActive = true AND rt.nextDueDate <= :date AND (rt.endDate IS NULL OR rt.endDate >= :date) " +
+           "AND MOD(rt.id, :partitions) = :partition " +
+           "ORDER BY rt.nextDueDate ASC, rt.id ASC")
+    List<RecurringTransaction> findDuePartitionPage(@Param("date") LocalDate date,
+                                                    @Param("partitions") int partitions,
+                                                    @Param("partition") int partition,
+                                                    Pageable pageable);
+
+    @Query("SELECT rt FROM RecurringTransaction rt JOIN FETCH rt.account " +
+           "WHERE rt.isActive = true AND rt.nextDueDate <= :date AND (rt.endDate IS NULL OR rt.endDate >= :date) " +
+           "AND MOD(rt.id, :partitions) = :partition " +
+           "AND (rt.nextDueDate > :afterDate OR (rt.nextDueDate = :afterDate AND rt.id > :afterId)) " +
+           "ORDER BY rt.nextDueDate ASC, rt.id ASC")
+    List<RecurringTransaction> findDuePartitionPageAfter(@Param("date") LocalDate date,
+                                                         @Param("partitions") int partitions,
+                                                         @Param("partition") int partition,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterId") Long afterId,
+                                                         Pageable pageable);
+
+    @Query("SELECT rt.id, rt.nextDueDate FROM RecurringTransaction rt " +
+           "WHERE rt.isActive = true AND rt.id > :afterId ORDER BY rt.id ASC")
+    List<Object[]> findActiveDueDatesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT rt.id, rt.nextDueDate, rt.isActive, rt.updatedAt FROM RecurringTransaction rt " +
+           "WHERE rt.updatedAt > :since OR (rt.updatedAt = :since AND rt.id > :afterId) " +
+           "ORDER BY rt.updatedAt ASC, rt.id ASC")
+    List<Object[]> findChangedSince(@Param("since") LocalDateTime since,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
 }
 
 
@@ -0,0 +1,25 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ResourceVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String>, DirectoryRepository {
+
+    List<ResourceVersion> findByUpdatedAtAfter(LocalDateTime since);
+
+    // Only moves forward, so a late write from another node can never lower the version
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResourceVersion v SET v.version = :version, v.updatedAt = :now " +
+           "WHERE v.key = :key AND v.version < :version")
+    int advance(@Param("key") String key, @Param("version") long version, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String>, DirectoryRepository {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.leaseUntil = :until " +
+           "WHERE l.name = :name AND (l.leaseUntil IS NULL OR l.leaseUntil < :now OR l.owner = :owner)")
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLease l SET l.leaseUntil = NULL WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,42 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.SchedulerLease;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Named leases in {@code scheduler_leases}, shared by the jobs that must run on one node at a time.
+ * A lease row is created on first use, so new lease names need no migration.
+ */
+@Component
+public class SchedulerLeases {
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    /** Takes or extends the lease for {@code leaseMs} unless another owner holds it. */
+    public boolean tryAcquire(String name, String owner, long leaseMs) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusNanos(leaseMs * 1_000_000L);
+        if (schedulerLeaseRepository.tryAcquire(name, owner, now, until) > 0) {
+            return true;
+        }
+        if (schedulerLeaseRepository.existsById(name)) {
+            return false;
+        }
+
+        try {
+            schedulerLeaseRepository.saveAndFlush(new SchedulerLease(name));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+        }
+        return schedulerLeaseRepository.tryAcquire(name, owner, now, until) > 0;
+    }
+
+    public void release(String name, String owner) {
+        schedulerLeaseRepository.release(name, owner);
+    }
+}
@@ -1,76 +1,19 @@
 package com.expensetracker.repository;
 
 import com.expensetracker.entity.Transaction;
-import com.expensetracker.entity.TransactionType;
-import com.expensetracker.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.util.List;
+import java.util.Optional;
 
+/**
+ * Reads by user and date range come from {@link TransactionRepositoryCustom} and include archived
+ * rows. Lookups by id only see live rows, since archived transactions cannot be changed.
+ */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
 
-    Page<Transaction> findByUserOrderByTransactionDateDesc(User user, Pageable pageable);
-
-    List<Transaction> findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
-            User user,
-            LocalDate startDate,
-            LocalDate endDate
-    );
-
-    List<Transaction> findByUserAndCategoryIdAndTransactionDateBetweenOrderByTransactionDateDesc(
-            User user,
-            Long categoryId,
-            LocalDate startDate,
-            LocalDate endDate
-    );
-
-    List<Transaction> findByUserAndAccountIdAndTransactionDateBetweenOrderByTransactionDateDesc(
-            User user,
-            Long accountId,
-            LocalDate startDate,
-            LocalDate endDate
-    );
-
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.user = :user AND t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumAmountByUserAndTypeAndDateRange(@Param("user") User user,
-                                                  @Param("type") TransactionType type,
-                                                  @Param("startDate") LocalDate startDate,
-                                                  @Param("endDate") LocalDate endDate);
-
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.user = :user AND t.type = :type AND t.category.id = :categoryId " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumAmountByUserAndTypeAndCategoryAndDateRange(@Param("user") User user,
-                                                             @Param("type") TransactionType type,
-                                                             @Param("categoryId") Long categoryId,
-                                                             @Param("startDate") LocalDate startDate,
-                                                             @Param("endDate") LocalDate endDate);
-
-    @Query("SELECT t.category.name, COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.user = :user AND t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY t.category.name ORDER BY SUM(t.amount) DESC")
-    List<Object[]> getCategoryWiseSpending(@Param("user") User user,
-                                           @Param("type") TransactionType type,
-                                           @Param("startDate") LocalDate startDate,
-                                           @Param("endDate") LocalDate endDate);
-
-    @Query("SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.user = :user AND t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate) " +
-           "ORDER BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
-    List<Object[]> getMonthlyTrend(@Param("user") User user,
-                                   @Param("type") TransactionType type,
-                                   @Param("startDate") LocalDate startDate,
-                                   @Param("endDate") LocalDate endDate);
+    @EntityGraph(attributePaths = {"category", "account"})
+    Optional<Transaction> findWithCategoryAndAccountById(Long id);
 }
-
-
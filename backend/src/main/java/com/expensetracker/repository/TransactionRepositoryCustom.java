@@ -0,0 +1,54 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.TransactionType;
+import com.expensetracker.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface TransactionRepositoryCustom {
+
+    Page<Transaction> findByUserOrderByTransactionDateDesc(User user, Pageable pageable);
+
+    // An archived row as a detached Transaction, with its category and account
+    Optional<Transaction> findArchivedById(Long id);
+
+    List<Transaction> findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
+            User user,
+            LocalDate startDate,
+            LocalDate endDate
+    );
+
+    List<Transaction> findByUserAndCategoryIdAndTransactionDateBetweenOrderByTransactionDateDesc(
+            User user,
+            Long categoryId,
+            LocalDate startDate,
+            LocalDate endDate
+    );
+
+    List<Transaction> findByUserAndAccountIdAndTransactionDateBetweenOrderByTransactionDateDesc(
+            User user,
+            Long accountId,
+            LocalDate startDate,
+            LocalDate endDate
+    );
+
+    BigDecimal sumAmountByUserAndTypeAndDateRange(User user, TransactionType type,
+                                                  LocalDate startDate, LocalDate endDate);
+
+    BigDecimal sumAmountByUserAndTypeAndCategoryAndDateRange(User user, TransactionType type, Long categoryId,
+                                                             LocalDate startDate, LocalDate endDate);
+
+    // Rows of [category name, total], largest total first
+    List<Object[]> getCategoryWiseSpending(User user, TransactionType type,
+                                           LocalDate startDate, LocalDate endDate);
+
+    // Rows of [year, month, total] in calendar order
+    List<Object[]> getMonthlyTrend(User user, TransactionType type,
+                                   LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,229 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ArchivedTransaction;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.TransactionType;
+import com.expensetracker.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs each read against {@code transactions} and, when the range can reach archived years, against
+ * {@code transactions_archive}, and combines the results. The archive never holds the current year,
+ * so queries starting this year (dashboards, budgets, the recent pages) stay on the live table and
+ * only touch the partitions they need.
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final String LIVE = "Transaction";
+    private static final String ARCHIVE = "ArchivedTransaction";
+
+    private static final String FETCH = "SELECT t FROM %s t JOIN FETCH t.category JOIN FETCH t.account WHERE t.user = :user";
+
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getTransactionDate).reversed();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Transaction> findByUserOrderByTransactionDateDesc(User user, Pageable pageable) {
+        long live = count(LIVE, user);
+        long archived = count(ARCHIVE, user);
+        if (pageable.isUnpaged()) {
+            List<Transaction> all = new ArrayList<>(page(LIVE, Transaction.class, user, pageable, 0, Integer.MAX_VALUE));
+            if (archived > 0) {
+                all.addAll(fromArchive(page(ARCHIVE, ArchivedTransaction.class, user, pageable, 0, Integer.MAX_VALUE)));
+            }
+            return new PageImpl<>(all, pageable, live + archived);
+        }
+
+        // Archived rows come after the live ones: they belong to closed years, so apart from
+        // back-dated entries they are older than anything still in the live table.
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<Transaction> content = new ArrayList<>();
+        if (offset < live) {
+            content.addAll(page(LIVE, Transaction.class, user, pageable, offset, size));
+        }
+        if (content.size() < size && archived > 0) {
+            long archiveOffset = Math.max(0, offset - live);
+            content.addAll(fromArchive(page(ARCHIVE, ArchivedTransaction.class, user, pageable,
+                    archiveOffset, size - content.size())));
+        }
+        return new PageImpl<>(content, pageable, live + archived);
+    }
+
+    @Override
+    public Optional<Transaction> findArchivedById(Long id) {
+        return entityManager.createQuery(
+                        "SELECT t FROM " + ARCHIVE + " t JOIN FETCH t.category JOIN FETCH t.account WHERE t.id = :id",
+                        ArchivedTransaction.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(ArchivedTransaction::toTransaction);
+    }
+
+    @Override
+    public List<Transaction> findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
+            User user, LocalDate startDate, LocalDate endDate) {
+        return findInRange(user, "", null, startDate, endDate);
+    }
+
+    @Override
+    public List<Transaction> findByUserAndCategoryIdAndTransactionDateBetweenOrderByTransactionDateDesc(
+            User user, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        return findInRange(user, " AND t.category.id = :id", categoryId, startDate, endDate);
+    }
+
+    @Override
+    public List<Transaction> findByUserAndAccountIdAndTransactionDateBetweenOrderByTransactionDateDesc(
+            User user, Long accountId, LocalDate startDate, LocalDate endDate) {
+        return findInRange(user, " AND t.account.id = :id", accountId, startDate, endDate);
+    }
+
+    @Override
+    public BigDecimal sumAmountByUserAndTypeAndDateRange(User user, TransactionType type,
+                                                         LocalDate startDate, LocalDate endDate) {
+        return sum(user, type, "", null, startDate, endDate);
+    }
+
+    @Override
+    public BigDecimal sumAmountByUserAndTypeAndCategoryAndDateRange(User user, TransactionType type, Long categoryId,
+                                                                    LocalDate startDate, LocalDate endDate) {
+        return sum(user, type, " AND t.category.id = :id", categoryId, startDate, endDate);
+    }
+
+    @Override
+    public List<Object[]> getCategoryWiseSpending(User user, TransactionType type,
+                                                  LocalDate startDate, LocalDate endDate) {
+        String jpql = "SELECT t.category.name, COALESCE(SUM(t.amount), 0) FROM %s t " +
+                "WHERE t.user = :user AND t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate " +
+                "GROUP BY t.category.name ORDER BY SUM(t.amount) DESC";
+        List<Object[]> live = aggregate(jpql, LIVE, user, type, startDate, endDate);
+        if (!archiveMayHold(startDate)) {
+            return live;
+        }
+
+        Map<Object, BigDecimal> totals = new LinkedHashMap<>();
+        for (Object[] row : live) {
+            totals.merge(row[0], (BigDecimal) row[1], BigDecimal::add);
+        }
+        for (Object[] row : aggregate(jpql, ARCHIVE, user, type, startDate, endDate)) {
+            totals.merge(row[0], (BigDecimal) row[1], BigDecimal::add);
+        }
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<Object, BigDecimal>comparingByValue().reversed())
+                .map(entry -> new Object[] {entry.getKey(), entry.getValue()})
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Object[]> getMonthlyTrend(User user, TransactionType type,
+                                          LocalDate startDate, LocalDate endDate) {
+        String jpql = "SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), COALESCE(SUM(t.amount), 0) FROM %s t " +
+                "WHERE t.user = :user AND t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate " +
+                "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate) " +
+                "ORDER BY YEAR(t.transactionDate), MONTH(t.transactionDate)";
+        List<Object[]> live = aggregate(jpql, LIVE, user, type, startDate, endDate);
+        if (!archiveMayHold(startDate)) {
+            return live;
+        }
+
+        Map<Integer, Object[]> months = new TreeMap<>();
+        List<Object[]> rows = new ArrayList<>(live);
+        rows.addAll(aggregate(jpql, ARCHIVE, user, type, startDate, endDate));
+        for (Object[] row : rows) {
+            int key = ((Number) row[0]).intValue() * 100 + ((Number) row[1]).intValue();
+            months.merge(key, row, (a, b) -> new Object[] {a[0], a[1], ((BigDecimal) a[2]).add((BigDecimal) b[2])});
+        }
+        return new ArrayList<>(months.values());
+    }
+
+    private List<Transaction> findInRange(User user, String filter, Long id, LocalDate startDate, LocalDate endDate) {
+        String jpql = FETCH + filter + " AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC";
+        List<Transaction> result = new ArrayList<>(
+                rangeQuery(jpql, LIVE, Transaction.class, user, id, startDate, endDate).getResultList());
+        if (archiveMayHold(startDate)) {
+            result.addAll(fromArchive(
+                    rangeQuery(jpql, ARCHIVE, ArchivedTransaction.class, user, id, startDate, endDate).getResultList()));
+            result.sort(NEWEST_FIRST);
+        }
+        return result;
+    }
+
+    private BigDecimal sum(User user, TransactionType type, String filter, Long id, LocalDate startDate, LocalDate endDate) {
+        String jpql = "SELECT COALESCE(SUM(t.amount), 0) FROM %s t WHERE t.user = :user AND t.type = :type" + filter +
+                " AND t.transactionDate BETWEEN :startDate AND :endDate";
+        BigDecimal total = rangeQuery(jpql, LIVE, BigDecimal.class, user, id, startDate, endDate)
+                .setParameter("type", type)
+                .getSingleResult();
+        if (archiveMayHold(startDate)) {
+            total = total.add(rangeQuery(jpql, ARCHIVE, BigDecimal.class, user, id, startDate, endDate)
+                    .setParameter("type", type)
+                    .getSingleResult());
+        }
+        return total;
+    }
+
+    private List<Object[]> aggregate(String jpql, String entity, User user, TransactionType type,
+                                     LocalDate startDate, LocalDate endDate) {
+        return rangeQuery(jpql, entity, Object[].class, user, null, startDate, endDate)
+                .setParameter("type", type)
+                .getResultList();
+    }
+
+    private <T> TypedQuery<T> rangeQuery(String jpql, String entity, Class<T> resultType, User user, Long id,
+                                         LocalDate startDate, LocalDate endDate) {
+        TypedQuery<T> query = entityManager.createQuery(String.format(jpql, entity), resultType)
+                .setParameter("user", user)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate);
+        if (id != null) {
+            query.setParameter("id", id);
+        }
+        return query;
+    }
+
+    private <T> List<T> page(String entity, Class<T> resultType, User user, Pageable pageable, long offset, int size) {
+        String jpql = QueryUtils.applySorting(String.format(FETCH, entity) + " ORDER BY t.transactionDate DESC",
+                pageable.getSort(), "t");
+        return entityManager.createQuery(jpql, resultType)
+                .setParameter("user", user)
+                .setFirstResult((int) offset)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private long count(String entity, User user) {
+        return entityManager.createQuery("SELECT COUNT(t) FROM " + entity + " t WHERE t.user = :user", Long.class)
+                .setParameter("user", user)
+                .getSingleResult();
+    }
+
+    private static List<Transaction> fromArchive(List<ArchivedTransaction> rows) {
+        return rows.stream().map(ArchivedTransaction::toTransaction).collect(Collectors.toList());
+    }
+
+    // The archival job only moves closed years, never the current one
+    private static boolean archiveMayHold(LocalDate startDate) {
+        return startDate == null || startDate.isBefore(LocalDate.now().withDayOfYear(1));
+    }
+}
@@ -1,6 +1,8 @@
 package com.expensetracker.security;
 
+import com.expensetracker.entity.User;
 import com.expensetracker.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -25,6 +27,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -32,26 +40,34 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String requestTokenHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwtToken = null;
+        Claims claims = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                // Verify the signature once; the claims are reused for validation below
+                claims = jwtTokenUtil.parseClaims(jwtToken);
+                username = claims.getSubject();
             } catch (IllegalArgumentException e) {
                 logger.error("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
                 logger.error("JWT Token has expired");
             }
         } else {
-            logger.warn("JWT Token does not begin with Bearer String");
+            logger.debug("JWT Token does not begin with Bearer String");
+        }
+
+        // Revocations are checked in memory; a revoked token is treated like no token at all
+        if (username != null && tokenRevocationList.isRevoked(claims, jwtTokenUtil.getUserId(claims))) {
+            logger.debug("JWT Token has been revoked");
+            username = null;
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = resolveUser(claims, username);
 
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+            if (jwtTokenUtil.validateClaims(claims, userDetails)) {
 
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -62,7 +78,21 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
-}
-
 
+    // Serves the principal from the cache when the token carries a user id; only tokens without
+    // one, cache misses and tokens newer than the cached security version go to the database.
+    private UserDetails resolveUser(Claims claims, String username) {
+        Long userId = jwtTokenUtil.getUserId(claims);
+        if (userId == null) {
+            return this.userDetailsService.loadUserByUsername(username);
+        }
 
+        User user = principalCache.get(userId);
+        if (user == null || user.getSecurityVersion() == null
+                || user.getSecurityVersion() < jwtTokenUtil.getSecurityVersion(claims)) {
+            user = this.userDetailsService.loadUserById(userId);
+            principalCache.put(user);
+        }
+        return user;
+    }
+}
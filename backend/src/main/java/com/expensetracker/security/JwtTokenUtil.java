@@ -1,6 +1,8 @@
 package com.expensetracker.security;
 
+import com.expensetracker.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -8,23 +10,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenUtil {
 
+    static final String USER_ID_CLAIM = "uid";
+
+    static final String SECURITY_VERSION_CLAIM = "sv";
+
     @Value("${spring.security.jwt.secret}")
     private String secret;
 
     @Value("${spring.security.jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Both are immutable and thread-safe, so they are built once instead of per token
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String getUsernameFromToken(String token) {
@@ -36,43 +53,70 @@ public class JwtTokenUtil {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token signature and returns its claims. Callers that need several claims should
+     * parse once with this method and reuse the result rather than calling the per-claim getters.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
+    /**
+     * User id carried by the token, or null for tokens issued before ids were embedded.
+     */
+    public Long getUserId(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    public int getSecurityVersion(Claims claims) {
+        Number version = claims.get(SECURITY_VERSION_CLAIM, Number.class);
+        return version != null ? version.intValue() : 0;
+    }
+
+    private Boolean isTokenExpired(Claims claims) {
+        final Date expiration = claims.getExpiration();
         return expiration.before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User) {
+            User user = (User) userDetails;
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(SECURITY_VERSION_CLAIM, currentSecurityVersion(user));
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(parseClaims(token), userDetails);
     }
-}
-
 
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        if (userDetails instanceof User && getSecurityVersion(claims) != currentSecurityVersion((User) userDetails)) {
+            return false;
+        }
+        return (username.equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
 
+    private static int currentSecurityVersion(User user) {
+        return user.getSecurityVersion() != null ? user.getSecurityVersion() : 0;
+    }
+}
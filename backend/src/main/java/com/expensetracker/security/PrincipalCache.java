@@ -0,0 +1,82 @@
+package com.expensetracker.security;
+
+import com.expensetracker.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of authenticated {@link User} principals keyed by user id, so
+ * requests with a valid token do not have to read the users table. Entries expire after
+ * {@code security.principal-cache.ttl-ms} so changes made on another node are picked up, and are
+ * evicted explicitly when the profile or password changes on this node.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlMs;
+
+    private final Map<Long, Entry> entries;
+
+    public PrincipalCache(@Value("${security.principal-cache.size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized User get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > ttlMs) {
+            entries.remove(userId);
+            return null;
+        }
+        return entry.user;
+    }
+
+    public synchronized void put(User user) {
+        entries.put(user.getId(), new Entry(user, System.currentTimeMillis()));
+    }
+
+    public synchronized void evict(Long userId) {
+        entries.remove(userId);
+    }
+
+    /**
+     * Evicts the user once the current transaction commits (immediately if there is none), so a
+     * concurrent request cannot re-cache the pre-update row in between.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(userId);
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long loadedAt;
+
+        private Entry(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
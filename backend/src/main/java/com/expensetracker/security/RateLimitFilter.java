@@ -0,0 +1,157 @@
+package com.expensetracker.security;
+
+import com.expensetracker.entity.User;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint token-bucket limits, applied after {@link JwtRequestFilter} so requests are keyed by
+ * user id; {@code /auth/**} and anonymous requests are keyed by client IP instead.
+ *
+ * Rules come from {@code rate-limit.rules} as comma-separated {@code pattern:capacity:refillPerSecond}
+ * entries; the first matching pattern wins. Buckets live in a concurrent map (lock-striped by key)
+ * and are dropped once they have refilled completely, so idle clients cost nothing.
+ */
+@Component
+@ManagedResource(objectName = "com.expensetracker:type=RateLimitFilter")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.rules:/**:300:10}")
+    private String ruleSpec;
+
+    @Value("${rate-limit.retry-after-min-seconds:1}")
+    private long retryAfterMinSeconds;
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String entry : ruleSpec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid rate-limit rule: " + entry);
+            }
+            rules.add(new Rule(parts[0], Integer.parseInt(parts[1]), Double.parseDouble(parts[2])));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Rule rule = enabled && !"OPTIONS".equals(request.getMethod()) ? findRule(path) : null;
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        String key = rule.pattern + '|' + clientKey(request, path);
+        long waitNanos = buckets.computeIfAbsent(key, k -> new TokenBucket(now))
+                .tryConsume(now, rule.capacity, rule.intervalNanos);
+
+        if (waitNanos > 0) {
+            rule.throttled.increment();
+            long retryAfter = Math.max(retryAfterMinSeconds, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType("text/plain");
+            response.getWriter().write("Error: Too many requests");
+            return;
+        }
+
+        rule.allowed.increment();
+        chain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    @ManagedAttribute(description = "Requests rejected with 429 since startup")
+    public long getThrottledRequests() {
+        return rules.stream().mapToLong(rule -> rule.throttled.sum()).sum();
+    }
+
+    @ManagedAttribute(description = "Requests admitted by the rate limiter since startup")
+    public long getAllowedRequests() {
+        return rules.stream().mapToLong(rule -> rule.allowed.sum()).sum();
+    }
+
+    @ManagedAttribute(description = "Buckets currently held in memory")
+    public int getActiveBuckets() {
+        return buckets.size();
+    }
+
+    @ManagedOperation(description = "Requests rejected with 429 for one rule pattern")
+    public long getThrottledRequests(String pattern) {
+        return rules.stream().filter(rule -> rule.pattern.equals(pattern))
+                .mapToLong(rule -> rule.throttled.sum()).sum();
+    }
+
+    private Rule findRule(String path) {
+        for (Rule rule : rules) {
+            if (PATH_MATCHER.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request, String path) {
+        if (!path.startsWith("/auth/")) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User) {
+                return "u" + ((User) authentication.getPrincipal()).getId();
+            }
+        }
+        return "ip" + request.getRemoteAddr();
+    }
+
+    private static final class Rule {
+        private final String pattern;
+        private final int capacity;
+        private final long intervalNanos;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+
+        private Rule(String pattern, int capacity, double refillPerSecond) {
+            this.pattern = pattern;
+            this.capacity = Math.max(1, capacity);
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        }
+    }
+}
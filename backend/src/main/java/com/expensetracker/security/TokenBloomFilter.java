@@ -0,0 +1,64 @@
+package com.expensetracker.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over token ids. A negative answer is definite, so almost every request
+ * is cleared without touching the exact revocation set. Entries cannot be removed; the owner
+ * rebuilds the filter when expired revocations are purged.
+ */
+final class TokenBloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final int bits;
+
+    private final int hashes;
+
+    TokenBloomFilter(int bits, int hashes) {
+        this.bits = Math.max(64, bits);
+        this.hashes = Math.max(1, hashes);
+        this.words = new AtomicLongArray((this.bits + 63) >>> 6);
+    }
+
+    void add(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the characters, finished with a 64-bit mix so both halves are usable
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
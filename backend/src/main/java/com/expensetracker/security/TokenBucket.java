@@ -0,0 +1,42 @@
+package com.expensetracker.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its "theoretical arrival time" form: the whole state is one timestamp
+ * that is advanced by CAS, so a bucket costs a single {@code AtomicLong} and no lock.
+ *
+ * A bucket of {@code capacity} tokens refilled every {@code intervalNanos} admits a request when the
+ * arrival time, pushed forward by one interval, is no more than {@code capacity} intervals ahead of
+ * now. A bucket whose arrival time is in the past is full and can be dropped without losing state.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 when admitted, otherwise the nanoseconds until a token is free.
+     */
+    long tryConsume(long nowNanos, int capacity, long intervalNanos) {
+        long burst = capacity * intervalNanos;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burst) {
+                return ahead - burst;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.expensetracker.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the {@code token_revocations} table, checked by {@link JwtRequestFilter} on
+ * every request without a database round trip. Single tokens are looked up through a Bloom filter
+ * in front of an exact set of ids; whole-user revocations are a "not before" instant per user.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final int bloomBits;
+
+    private final int bloomHashes;
+
+    private volatile TokenBloomFilter bloomFilter;
+
+    private volatile Set<String> revokedTokenIds = ConcurrentHashMap.newKeySet();
+
+    private volatile Map<Long, Long> notBeforeByUser = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(@Value("${security.revocation.bloom-bits:1048576}") int bloomBits,
+                               @Value("${security.revocation.bloom-hashes:4}") int bloomHashes) {
+        this.bloomBits = bloomBits;
+        this.bloomHashes = bloomHashes;
+        this.bloomFilter = new TokenBloomFilter(bloomBits, bloomHashes);
+    }
+
+    public boolean isRevoked(Claims claims, Long userId) {
+        if (userId != null) {
+            Long notBefore = notBeforeByUser.get(userId);
+            // iat has second precision, so compare whole seconds; a token issued in the same second
+            // as the revocation (e.g. the one returned by change-password) stays valid
+            if (notBefore != null && claims.getIssuedAt() != null
+                    && claims.getIssuedAt().getTime() / 1000 < notBefore / 1000) {
+                return true;
+            }
+        }
+        String tokenId = claims.getId();
+        return tokenId != null && bloomFilter.mightContain(tokenId) && revokedTokenIds.contains(tokenId);
+    }
+
+    public synchronized void revokeToken(String tokenId) {
+        revokedTokenIds.add(tokenId);
+        bloomFilter.add(tokenId);
+    }
+
+    public synchronized void revokeUserTokensBefore(Long userId, Date notBefore) {
+        notBeforeByUser.merge(userId, notBefore.getTime(), Math::max);
+    }
+
+    /**
+     * Replaces the whole state, used on startup and after expired revocations have been purged
+     * (the Bloom filter cannot forget entries, so it is rebuilt from the surviving ids).
+     */
+    public synchronized void reset(Set<String> tokenIds, Map<Long, Long> notBefore) {
+        TokenBloomFilter rebuiltFilter = new TokenBloomFilter(bloomBits, bloomHashes);
+        Set<String> rebuiltIds = ConcurrentHashMap.newKeySet();
+        for (String tokenId : tokenIds) {
+            rebuiltFilter.add(tokenId);
+            rebuiltIds.add(tokenId);
+        }
+        // Old and new state both cover every surviving revocation, so readers are safe mid-swap
+        revokedTokenIds = rebuiltIds;
+        bloomFilter = rebuiltFilter;
+        notBeforeByUser = new ConcurrentHashMap<>(notBefore);
+    }
+
+    public int size() {
+        return revokedTokenIds.size() + notBeforeByUser.size();
+    }
+}
@@ -3,6 +3,7 @@ package com.expensetracker.service;
 import com.expensetracker.entity.Account;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.service.ResourceVersions.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,10 +17,18 @@ public class AccountService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private CashFlowCalendarCache calendarCache;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    // Read from the primary so the list always matches the ETag sent with it
     public List<Account> getAllAccounts(User user) {
         return accountRepository.findByUserAndIsActiveTrueOrderByName(user);
     }
 
+    @Transactional(readOnly = true)
     public Account getAccount(User user, Long id) {
         return accountRepository.findById(id)
                 .filter(account -> account.getUser().getId().equals(user.getId()))
@@ -28,6 +37,8 @@ public class AccountService {
 
     public Account createAccount(User user, Account account) {
         account.setUser(user);
+        calendarCache.invalidate(user.getId());
+        resourceVersions.changed(user.getId(), Resource.ACCOUNTS);
         return accountRepository.save(account);
     }
 
@@ -39,6 +50,9 @@ public class AccountService {
         account.setType(accountDetails.getType());
         account.setIsActive(accountDetails.getIsActive());
         account.setBalance(accountDetails.getBalance());
+        calendarCache.invalidate(user.getId());
+        // Recurring transactions are listed with their account
+        resourceVersions.changed(user.getId(), Resource.ACCOUNTS, Resource.RECURRING_TRANSACTIONS);
         
         return accountRepository.save(account);
     }
@@ -47,6 +61,8 @@ public class AccountService {
         Account account = getAccount(user, id);
         account.setIsActive(false);
         accountRepository.save(account);
+        calendarCache.invalidate(user.getId());
+        resourceVersions.changed(user.getId(), Resource.ACCOUNTS, Resource.RECURRING_TRANSACTIONS);
     }
 }
 
@@ -1,5 +1,6 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.BudgetDto;
 import com.expensetracker.entity.*;
 import com.expensetracker.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +12,7 @@ import java.time.LocalDate;
 import java.util.*;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class AnalyticsService {
 
     @Autowired
@@ -63,7 +64,7 @@ public class AnalyticsService {
         
         for (Budget budget : activeBudgets) {
             Map<String, Object> status = new HashMap<>();
-            status.put("budget", budget);
+            status.put("budget", new BudgetDto(budget));
             
             LocalDate startDate = budget.getStartDate();
             LocalDate endDate = budget.getEndDate();
@@ -3,11 +3,22 @@ package com.expensetracker.service;
 import com.expensetracker.dto.RegisterRequest;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.security.PasswordHashingBusyException;
+import com.expensetracker.security.PasswordHashingExecutor;
+import com.expensetracker.security.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @Transactional
 public class AuthService {
@@ -18,6 +29,23 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Verified against for unknown usernames so they take as long as wrong passwords
+    private String unknownUserHash;
+
+    @PostConstruct
+    public void init() {
+        unknownUserHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
@@ -30,13 +58,57 @@ public class AuthService {
         User user = new User();
         user.setUsername(registerRequest.getUsername());
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHashingExecutor.call(() -> passwordEncoder.encode(registerRequest.getPassword())));
         user.setFirstName(registerRequest.getFirstName());
         user.setLastName(registerRequest.getLastName());
 
         return userRepository.save(user);
     }
-}
 
+    /**
+     * Checks the credentials on the password hashing pool. The returned future fails with
+     * {@link BadCredentialsException} for a wrong username or password. Hashes below the configured
+     * BCrypt strength are replaced with a stronger one while the plain password is at hand.
+     */
+    public CompletableFuture<User> authenticate(String username, String password) {
+        User user = userRepository.findByUsername(username).orElse(null);
+        String hash = user != null ? user.getPassword() : unknownUserHash;
+
+        CompletableFuture<User> result = passwordHashingExecutor.submit(() -> {
+            if (!passwordEncoder.matches(password, hash) || user == null) {
+                throw new BadCredentialsException("Bad credentials");
+            }
 
+            if (passwordEncoder.upgradeEncoding(hash)) {
+                String upgraded = passwordEncoder.encode(password);
+                if (userRepository.replacePasswordHash(user.getId(), hash, upgraded) > 0) {
+                    user.setPassword(upgraded);
+                }
+            }
 
+            principalCache.put(user);
+            return user;
+        });
+        result.whenComplete((authenticated, error) -> countLogin(error));
+        return result;
+    }
+
+    private void countLogin(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String outcome;
+        if (cause == null) {
+            outcome = "success";
+        } else if (cause instanceof BadCredentialsException) {
+            outcome = "bad-credentials";
+        } else if (cause instanceof PasswordHashingBusyException) {
+            outcome = "busy";
+        } else {
+            outcome = "error";
+        }
+        Counter.builder("expense.logins")
+                .description("Login attempts by outcome")
+                .tags("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
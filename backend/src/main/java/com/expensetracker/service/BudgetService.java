@@ -5,6 +5,7 @@ import com.expensetracker.entity.Category;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.service.ResourceVersions.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,12 +22,17 @@ public class BudgetService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    // Primary rather than replica: the controller pairs this list with the current version's ETag
     public List<Budget> getAllBudgets(User user) {
         return budgetRepository.findByUserAndIsActiveTrueOrderByStartDateDesc(user);
     }
 
+    @Transactional(readOnly = true)
     public Budget getBudget(User user, Long id) {
-        return budgetRepository.findById(id)
+        return budgetRepository.findWithCategoryById(id)
                 .filter(budget -> budget.getUser().getId().equals(user.getId()))
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
     }
@@ -41,6 +47,7 @@ public class BudgetService {
         }
         
         budget.setUser(user);
+        resourceVersions.changed(user.getId(), Resource.BUDGETS);
         return budgetRepository.save(budget);
     }
 
@@ -61,6 +68,7 @@ public class BudgetService {
         } else {
             budget.setCategory(null);
         }
+        resourceVersions.changed(user.getId(), Resource.BUDGETS);
         
         return budgetRepository.save(budget);
     }
@@ -69,6 +77,7 @@ public class BudgetService {
         Budget budget = getBudget(user, id);
         budget.setIsActive(false);
         budgetRepository.save(budget);
+        resourceVersions.changed(user.getId(), Resource.BUDGETS);
     }
 }
 
@@ -0,0 +1,91 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CashFlowCalendarDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-user cache of projected cash-flow calendars. Entries are keyed by window and by the current
+ * day, and a user's entries are dropped once a change to one of their recurring rules or account
+ * balances commits. Entries also expire after {@code recurring.calendar.cache-ttl-seconds}, which
+ * bounds how long a calendar computed concurrently with such a change can outlive it. The least
+ * recently used users are evicted beyond {@code recurring.calendar.cache-users}.
+ */
+@Component
+public class CashFlowCalendarCache {
+
+    private final Map<Long, Map<String, Entry>> calendars;
+
+    private final long ttlMillis;
+
+    public CashFlowCalendarCache(@Value("${recurring.calendar.cache-users:1000}") int maxUsers,
+                                 @Value("${recurring.calendar.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.calendars = new LinkedHashMap<Long, Map<String, Entry>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<String, Entry>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public synchronized CashFlowCalendarDto get(Long userId, LocalDate from, LocalDate to, LocalDate today) {
+        Map<String, Entry> windows = calendars.get(userId);
+        Entry entry = windows != null ? windows.get(key(from, to, today)) : null;
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.calendar;
+    }
+
+    public synchronized void put(Long userId, LocalDate from, LocalDate to, LocalDate today, CashFlowCalendarDto calendar) {
+        Map<String, Entry> windows = calendars.computeIfAbsent(userId, id -> new HashMap<>());
+        // Only a handful of windows are requested per user; start over rather than grow unbounded
+        if (windows.size() >= 8) {
+            windows.clear();
+        }
+        windows.put(key(from, to, today), new Entry(calendar, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Drops the user's calendars, after the current transaction commits if there is one: dropping
+     * them earlier would let a request in between cache the calendar from before the change.
+     */
+    public void invalidate(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(userId);
+            }
+        });
+    }
+
+    private synchronized void remove(Long userId) {
+        calendars.remove(userId);
+    }
+
+    private static String key(LocalDate from, LocalDate to, LocalDate today) {
+        return from + ":" + to + ":" + today;
+    }
+
+    private static final class Entry {
+        private final CashFlowCalendarDto calendar;
+        private final long expiresAt;
+
+        private Entry(CashFlowCalendarDto calendar, long expiresAt) {
+            this.calendar = calendar;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
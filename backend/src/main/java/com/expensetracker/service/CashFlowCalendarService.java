@@ -0,0 +1,160 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.AccountProjectionDto;
+import com.expensetracker.dto.CashFlowCalendarDto;
+import com.expensetracker.dto.DailyBalanceDto;
+import com.expensetracker.dto.ProjectedOccurrenceDto;
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.RecurringTransaction;
+import com.expensetracker.entity.TransactionType;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.repository.RecurringTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Not readOnly: calendars are cached, so they are computed from the primary rather than a replica
+// that may not have the latest balances and rules yet
+@Service
+@Transactional
+public class CashFlowCalendarService {
+
+    private static final long MAX_WINDOW_DAYS = 3660;
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CashFlowCalendarCache calendarCache;
+
+    /**
+     * Projects the user's active recurring transactions over [from, to] without persisting anything.
+     * Occurrences that are due but not yet posted before {@code from} are folded into each account's
+     * opening balance; every day in the window then gets that account's projected closing balance.
+     */
+    public CashFlowCalendarDto getCalendar(User user, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Calendar end date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_WINDOW_DAYS) {
+            throw new RuntimeException("Calendar window is limited to " + MAX_WINDOW_DAYS + " days");
+        }
+
+        LocalDate today = LocalDate.now();
+        CashFlowCalendarDto cached = calendarCache.get(user.getId(), from, to, today);
+        if (cached != null) {
+            return cached;
+        }
+
+        CashFlowCalendarDto calendar = buildCalendar(user, from, to);
+        calendarCache.put(user.getId(), from, to, today, calendar);
+        return calendar;
+    }
+
+    private CashFlowCalendarDto buildCalendar(User user, LocalDate from, LocalDate to) {
+        Map<Long, AccountProjectionDto> projections = new LinkedHashMap<>();
+        Map<Long, BigDecimal> balances = new LinkedHashMap<>();
+        for (Account account : accountRepository.findByUserAndIsActiveTrueOrderByName(user)) {
+            projections.put(account.getId(), new AccountProjectionDto(account.getId(), account.getName(), account.getBalance()));
+            balances.put(account.getId(), account.getBalance());
+        }
+
+        // One lazy cursor per rule, merged by date, so no rule is ever expanded into a list
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparing((Cursor c) -> c.date));
+        for (RecurringTransaction rt : recurringTransactionRepository.findByUserAndIsActiveTrueOrderByNextDueDateAsc(user)) {
+            Long accountId = rt.getAccount().getId();
+            if (!balances.containsKey(accountId) || rt.getNextDueDate() == null) {
+                continue;
+            }
+            LocalDate last = rt.getEndDate() != null && rt.getEndDate().isBefore(to) ? rt.getEndDate() : to;
+            Cursor cursor = new Cursor(rt, accountId, new RecurrenceIterator(rt.getNextDueDate(), rt.getRecurrenceType(), last));
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        CashFlowCalendarDto calendar = new CashFlowCalendarDto(from, to);
+
+        // Occurrences still outstanding before the window only move the opening balances
+        while (!cursors.isEmpty() && cursors.peek().date.isBefore(from)) {
+            Cursor cursor = cursors.poll();
+            balances.merge(cursor.accountId, cursor.signedAmount(), BigDecimal::add);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        projections.forEach((id, projection) -> projection.setOpeningBalance(balances.get(id)));
+
+        Map<Long, BigDecimal[]> flows = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            flows.clear();
+            while (!cursors.isEmpty() && cursors.peek().date.equals(day)) {
+                Cursor cursor = cursors.poll();
+                RecurringTransaction rt = cursor.recurringTransaction;
+                calendar.getOccurrences().add(new ProjectedOccurrenceDto(day, rt.getId(), rt.getDescription(),
+                        rt.getAmount(), rt.getType().name(), cursor.accountId));
+
+                BigDecimal[] flow = flows.computeIfAbsent(cursor.accountId, id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+                if (rt.getType() == TransactionType.INCOME) {
+                    flow[0] = flow[0].add(rt.getAmount());
+                } else {
+                    flow[1] = flow[1].add(rt.getAmount());
+                }
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+
+            for (Map.Entry<Long, AccountProjectionDto> entry : projections.entrySet()) {
+                BigDecimal[] flow = flows.get(entry.getKey());
+                BigDecimal inflow = flow != null ? flow[0] : BigDecimal.ZERO;
+                BigDecimal outflow = flow != null ? flow[1] : BigDecimal.ZERO;
+                BigDecimal balance = balances.get(entry.getKey()).add(inflow).subtract(outflow);
+                balances.put(entry.getKey(), balance);
+                entry.getValue().getDays().add(new DailyBalanceDto(day, inflow, outflow, balance));
+            }
+        }
+
+        calendar.getAccounts().addAll(projections.values());
+        return calendar;
+    }
+
+    private static final class Cursor {
+        private final RecurringTransaction recurringTransaction;
+        private final Long accountId;
+        private final RecurrenceIterator dates;
+        private LocalDate date;
+
+        private Cursor(RecurringTransaction recurringTransaction, Long accountId, RecurrenceIterator dates) {
+            this.recurringTransaction = recurringTransaction;
+            this.accountId = accountId;
+            this.dates = dates;
+        }
+
+        private boolean advance() {
+            if (!dates.hasNext()) {
+                return false;
+            }
+            date = dates.next();
+            return true;
+        }
+
+        private BigDecimal signedAmount() {
+            BigDecimal amount = recurringTransaction.getAmount();
+            return recurringTransaction.getType() == TransactionType.INCOME ? amount : amount.negate();
+        }
+    }
+}
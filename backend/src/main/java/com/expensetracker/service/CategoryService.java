@@ -3,6 +3,7 @@ package com.expensetracker.service;
 import com.expensetracker.entity.Category;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.service.ResourceVersions.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,10 +17,15 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    // Not readOnly: the list goes out under the current version's ETag, which the replica may lag behind
     public List<Category> getAllCategories(User user) {
         return categoryRepository.findByUserOrIsDefaultTrueOrderByName(user);
     }
 
+    @Transactional(readOnly = true)
     public Category getCategory(User user, Long id) {
         return categoryRepository.findById(id)
                 .filter(category -> category.getUser() == null || category.getUser().getId().equals(user.getId()))
@@ -33,6 +39,7 @@ public class CategoryService {
         
         category.setUser(user);
         category.setIsDefault(false);
+        resourceVersions.changed(user.getId(), Resource.CATEGORIES);
         return categoryRepository.save(category);
     }
 
@@ -51,6 +58,8 @@ public class CategoryService {
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
         category.setColor(categoryDetails.getColor());
+        // Budgets and recurring transactions are listed with their category
+        resourceVersions.changed(user.getId(), Resource.CATEGORIES, Resource.BUDGETS, Resource.RECURRING_TRANSACTIONS);
         
         return categoryRepository.save(category);
     }
@@ -63,6 +72,7 @@ public class CategoryService {
         }
         
         categoryRepository.delete(category);
+        resourceVersions.changed(user.getId(), Resource.CATEGORIES, Resource.BUDGETS, Resource.RECURRING_TRANSACTIONS);
     }
 }
 
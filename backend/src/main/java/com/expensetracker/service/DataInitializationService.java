@@ -2,22 +2,42 @@ package com.expensetracker.service;
 
 import com.expensetracker.entity.Category;
 import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.sharding.ShardContext;
+import com.expensetracker.sharding.ShardResolver;
+import com.expensetracker.startup.DeferredStartup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 @Service
+@Order(0)
 public class DataInitializationService implements CommandLineRunner {
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private DeferredStartup deferredStartup;
+
     @Override
     public void run(String... args) throws Exception {
-        initializeDefaultCategories();
+        deferredStartup.run("default-categories", () -> {
+            initializeDefaultCategories();
+            copyDefaultCategoriesToShards();
+        });
     }
 
     private void initializeDefaultCategories() {
@@ -40,6 +60,31 @@ public class DataInitializationService implements CommandLineRunner {
         }
     }
 
+    // User categories live on the user's shard, so every shard needs the defaults under the same ids
+    private void copyDefaultCategoriesToShards() {
+        if (shardResolver.shardCount() <= 1) {
+            return;
+        }
+        List<Category> defaults = categoryRepository.findByIsDefaultTrue();
+        for (int shard : shardResolver.shards()) {
+            if (shard == ShardContext.DIRECTORY) {
+                continue;
+            }
+            ShardContext.run(shard, () -> {
+                for (Category category : defaults) {
+                    Integer existing = jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM categories WHERE id = ?", Integer.class, category.getId());
+                    if (existing == null || existing == 0) {
+                        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                        jdbcTemplate.update("INSERT INTO categories (id, name, description, color, is_default, created_at, updated_at) " +
+                                "VALUES (?, ?, ?, ?, TRUE, ?, ?)",
+                                category.getId(), category.getName(), category.getDescription(), category.getColor(), now, now);
+                    }
+                }
+            });
+        }
+    }
+
     private Category createDefaultCategory(String name, String description, String color) {
         Category category = new Category();
         category.setName(name);
@@ -0,0 +1,12 @@
+package com.expensetracker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateOccurrenceException extends RuntimeException {
+
+    public DuplicateOccurrenceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.RecurrenceType;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily walks the due dates of a recurrence, starting at a given date and stopping after an
+ * inclusive last date. Each step applies the same rule as {@link #advance}, so the dates match
+ * the ones the service would post one by one.
+ */
+public class RecurrenceIterator implements Iterator<LocalDate> {
+
+    private final RecurrenceType recurrenceType;
+    private final LocalDate last;
+    private LocalDate next;
+
+    public RecurrenceIterator(LocalDate first, RecurrenceType recurrenceType, LocalDate last) {
+        this.recurrenceType = recurrenceType;
+        this.last = last;
+        this.next = first;
+    }
+
+    public static LocalDate advance(LocalDate currentDate, RecurrenceType recurrenceType) {
+        switch (recurrenceType) {
+            case DAILY:
+                return currentDate.plusDays(1);
+            case WEEKLY:
+                return currentDate.plusWeeks(1);
+            case MONTHLY:
+                return currentDate.plusMonths(1);
+            case YEARLY:
+                return currentDate.plusYears(1);
+            default:
+                throw new IllegalArgumentException("Unknown recurrence type: " + recurrenceType);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null && !next.isAfter(last);
+    }
+
+    @Override
+    public LocalDate next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LocalDate current = next;
+        next = advance(current, recurrenceType);
+        return current;
+    }
+}
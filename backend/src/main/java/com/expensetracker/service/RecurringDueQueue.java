@@ -0,0 +1,81 @@
+package com.expensetracker.service;
+
+import com.expensetracker.sharding.ShardContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory schedule of the next due date of every active recurring transaction.
+ *
+ * Due dates are whole days, so rules are kept in one bucket per day (a calendar queue) rather than
+ * in a fine-grained timing wheel: checking whether anything is due only looks at the earliest
+ * bucket, and scheduling or cancelling a rule touches a single bucket.
+ *
+ * Each rule remembers the shard that was current when it was scheduled, so the scheduler can post
+ * it on the shard it lives on.
+ */
+@Component
+public class RecurringDueQueue {
+
+    private final TreeMap<LocalDate, Set<Long>> buckets = new TreeMap<>();
+
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+
+    private final Map<Long, Integer> shards = new HashMap<>();
+
+    public synchronized void schedule(Long id, LocalDate dueDate) {
+        remove(id);
+        if (dueDate == null) {
+            return;
+        }
+        buckets.computeIfAbsent(dueDate, date -> new LinkedHashSet<>()).add(id);
+        dueDates.put(id, dueDate);
+        shards.put(id, ShardContext.current());
+    }
+
+    public synchronized void remove(Long id) {
+        LocalDate dueDate = dueDates.remove(id);
+        shards.remove(id);
+        if (dueDate == null) {
+            return;
+        }
+        Set<Long> bucket = buckets.get(dueDate);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(dueDate);
+            }
+        }
+    }
+
+    public synchronized boolean hasDue(LocalDate today) {
+        return !buckets.isEmpty() && !buckets.firstKey().isAfter(today);
+    }
+
+    /**
+     * Removes and returns every rule due on or before the given date by shard, earliest first.
+     */
+    public synchronized Map<Integer, List<Long>> pollDue(LocalDate today) {
+        Map<Integer, List<Long>> due = new TreeMap<>();
+        while (!buckets.isEmpty() && !buckets.firstKey().isAfter(today)) {
+            for (Long id : buckets.pollFirstEntry().getValue()) {
+                dueDates.remove(id);
+                Integer shard = shards.remove(id);
+                due.computeIfAbsent(shard != null ? shard : ShardContext.DIRECTORY, s -> new ArrayList<>()).add(id);
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return dueDates.size();
+    }
+}
@@ -0,0 +1,67 @@
+package com.expensetracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, node-local record of recurring occurrences (recurring transaction id + scheduled date)
+ * that are being or have been posted. It lets duplicate executions be rejected without touching
+ * the database; across nodes the authority is the claim row that the posting transaction inserts
+ * into recurring_occurrences, whose unique key on (recurring_transaction_id, occurrence_date)
+ * rejects a second claim.
+ */
+@Component
+public class RecurringOccurrenceCache {
+
+    private final Map<String, Boolean> claimed;
+
+    public RecurringOccurrenceCache(@Value("${recurring.dedup.cache-size:10000}") int maxSize) {
+        this.claimed = new LinkedHashMap<String, Boolean>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Claims an occurrence for posting. Returns false if it was already claimed. When called inside
+     * a transaction the claim is dropped again if that transaction does not commit.
+     */
+    public boolean claim(Long recurringTransactionId, LocalDate occurrenceDate) {
+        String key = key(recurringTransactionId, occurrenceDate);
+        synchronized (claimed) {
+            if (claimed.putIfAbsent(key, Boolean.TRUE) != null) {
+                return false;
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(key);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private void release(String key) {
+        synchronized (claimed) {
+            claimed.remove(key);
+        }
+    }
+
+    private static String key(Long recurringTransactionId, LocalDate occurrenceDate) {
+        return recurringTransactionId + ":" + occurrenceDate;
+    }
+}
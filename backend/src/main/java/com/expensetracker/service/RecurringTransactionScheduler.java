@@ -0,0 +1,440 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.RecurringTransaction;
+import com.expensetracker.repository.RecurringTransactionRepository;
+import com.expensetracker.repository.SchedulerLeases;
+import com.expensetracker.sharding.ShardContext;
+import com.expensetracker.sharding.ShardResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Posts due recurring transactions in the background.
+ *
+ * Rules are split into {@code recurring.scheduler.partitions} partitions by id. Work on a partition
+ * runs on a worker thread and only while this node holds the partition's lease row in
+ * {@code scheduler_leases}, so several instances can share the work safely.
+ *
+ * Rules fire from the in-memory {@link RecurringDueQueue}, which is checked every tick and only
+ * touches the database for rules that are actually due. The queue is loaded once at startup; after
+ * that, rules created or changed on other instances reach it through a feed of recently updated
+ * rows (by {@code updated_at}), so the table is never swept in full. With the queue disabled the
+ * scheduler falls back to paging through the indexed due query on every interval.
+ * With sharding, every shard is partitioned and leased separately and its work runs on that shard.
+ */
+@Service
+public class RecurringTransactionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTransactionScheduler.class);
+
+    private static final String LEASE_PREFIX = "recurring-partition-";
+
+    // Changes are re-read for this long, for rows stamped by a node whose clock runs behind or
+    // committed after a refresh had already read past their timestamp
+    private static final Duration CHANGE_OVERLAP = Duration.ofMinutes(2);
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private SchedulerLeases schedulerLeases;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecurringDueQueue dueQueue;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Value("${recurring.scheduler.partitions:4}")
+    private int partitions;
+
+    @Value("${recurring.scheduler.threads:4}")
+    private int threads;
+
+    @Value("${recurring.scheduler.page-size:200}")
+    private int pageSize;
+
+    @Value("${recurring.scheduler.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${recurring.scheduler.catch-up:true}")
+    private boolean catchUp;
+
+    @Value("${recurring.due-queue.enabled:true}")
+    private boolean dueQueueEnabled;
+
+    private volatile boolean dueQueueLoaded;
+
+    // Per shard, the updated_at up to which changes have been applied to the queue
+    private final Map<Integer, LocalDateTime> changesSeen = new ConcurrentHashMap<>();
+
+    private final String owner = resolveOwner();
+
+    private ExecutorService executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "recurring-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDueQueue() {
+        if (dueQueueEnabled) {
+            executor.submit(this::fillDueQueue);
+        }
+    }
+
+    // Synchronized so a refresh that retries a failed load cannot run alongside the startup load
+    private synchronized void fillDueQueue() {
+        if (dueQueueLoaded) {
+            return;
+        }
+        try {
+            for (int shard : shardResolver.shards()) {
+                // Taken before the load, so changes made while it runs are picked up by the feed
+                LocalDateTime loadStartedAt = LocalDateTime.now();
+                ShardContext.run(shard, this::fillDueQueueFromShard);
+                changesSeen.put(shard, loadStartedAt);
+            }
+            dueQueueLoaded = true;
+            logger.info("Loaded {} active recurring transactions into the due queue", dueQueue.size());
+        } catch (Exception e) {
+            logger.error("Could not load the recurring due queue, retrying on the next refresh", e);
+        }
+    }
+
+    private void fillDueQueueFromShard() {
+        Long afterId = 0L;
+        PageRequest pageRequest = PageRequest.of(0, 1000);
+        while (true) {
+            List<Object[]> page = recurringTransactionRepository.findActiveDueDatesAfter(afterId, pageRequest);
+            for (Object[] row : page) {
+                dueQueue.schedule((Long) row[0], (LocalDate) row[1]);
+            }
+            if (page.size() < pageRequest.getPageSize()) {
+                break;
+            }
+            afterId = (Long) page.get(page.size() - 1)[0];
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recurring.due-queue.refresh-ms:60000}",
+               initialDelayString = "${recurring.due-queue.refresh-ms:60000}")
+    public void refreshDueQueue() {
+        if (!dueQueueEnabled) {
+            return;
+        }
+        if (!dueQueueLoaded) {
+            fillDueQueue();
+            if (!dueQueueLoaded) {
+                return;
+            }
+        }
+        for (int shard : shardResolver.shards()) {
+            try {
+                ShardContext.run(shard, () -> applyChanges(shard));
+            } catch (Exception e) {
+                logger.error("Could not read recurring transaction changes on shard {}", shard, e);
+            }
+        }
+    }
+
+    // Stale entries are harmless (the row decides when a rule fires), so every changed row is
+    // simply rescheduled from what the database holds now.
+    private void applyChanges(int shard) {
+        LocalDateTime seen = changesSeen.get(shard);
+        if (seen == null) {
+            return;
+        }
+        LocalDateTime since = seen.minus(CHANGE_OVERLAP);
+        Long afterId = 0L;
+        PageRequest pageRequest = PageRequest.of(0, 1000);
+        while (true) {
+            List<Object[]> page = recurringTransactionRepository.findChangedSince(since, afterId, pageRequest);
+            for (Object[] row : page) {
+                Long id = (Long) row[0];
+                if (Boolean.TRUE.equals(row[2])) {
+                    dueQueue.schedule(id, (LocalDate) row[1]);
+                } else {
+                    dueQueue.remove(id);
+                }
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+            Object[] last = page.get(page.size() - 1);
+            since = (LocalDateTime) last[3];
+            afterId = (Long) last[0];
+            if (since.isAfter(seen)) {
+                seen = since;
+            }
+            if (page.size() < pageRequest.getPageSize()) {
+                break;
+            }
+        }
+        changesSeen.put(shard, seen);
+    }
+
+    @Scheduled(fixedDelayString = "${recurring.due-queue.tick-ms:60000}")
+    public void fireDueFromQueue() {
+        LocalDate today = LocalDate.now();
+        if (!dueQueueLoaded || !dueQueue.hasDue(today)) {
+            return;
+        }
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        dueQueue.pollDue(today).forEach((shard, dueIds) -> {
+            Map<Integer, List<Long>> byPartition = new TreeMap<>();
+            for (Long id : dueIds) {
+                byPartition.computeIfAbsent((int) (id % partitions), p -> new ArrayList<>()).add(id);
+            }
+            byPartition.forEach((partition, ids) ->
+                    tasks.add(() -> ShardContext.call(shard, () -> firePartition(shard, partition, ids, today))));
+        });
+        runAll(tasks);
+    }
+
+    private int firePartition(int shard, int partition, List<Long> ids, LocalDate today) {
+        String leaseName = leaseName(shard, partition);
+        if (!schedulerLeases.tryAcquire(leaseName, owner, leaseMs)) {
+            // Another node is working this partition; look at these rules again on the next tick
+            ids.forEach(id -> dueQueue.schedule(id, today));
+            return 0;
+        }
+
+        int processed = 0;
+        try {
+            for (Long id : ids) {
+                try {
+                    Boolean posted = transactionTemplate.execute(status -> fireOne(id, today));
+                    if (Boolean.TRUE.equals(posted)) {
+                        processed++;
+                    }
+                } catch (DuplicateOccurrenceException e) {
+                    // Posted elsewhere; the next tick reads the row and files it under its new date
+                    logger.debug("Skipping recurring transaction {}: {}", id, e.getMessage());
+                    dueQueue.schedule(id, today);
+                } catch (Exception e) {
+                    logger.error("Error processing recurring transaction {}, retrying on the next tick: {}",
+                            id, e.getMessage());
+                    dueQueue.schedule(id, today);
+                }
+            }
+        } finally {
+            schedulerLeases.release(leaseName, owner);
+        }
+        return processed;
+    }
+
+    // The queue entry may be stale (changed on another node), so the row decides what happens.
+    private boolean fireOne(Long id, LocalDate today) {
+        Optional<RecurringTransaction> found = recurringTransactionRepository.findById(id);
+        if (!found.isPresent() || !found.get().getIsActive()) {
+            dueQueue.remove(id);
+            return false;
+        }
+
+        RecurringTransaction recurringTransaction = found.get();
+        LocalDate endDate = recurringTransaction.getEndDate();
+        if (endDate != null && endDate.isBefore(today)) {
+            dueQueue.remove(id);
+            return false;
+        }
+        if (recurringTransaction.getNextDueDate().isAfter(today)) {
+            dueQueue.schedule(id, recurringTransaction.getNextDueDate());
+            return false;
+        }
+
+        execute(recurringTransaction, today);
+        return true;
+    }
+
+    // Only without the due queue; with it, nothing polls the due index on a timer
+    @Scheduled(fixedDelayString = "${recurring.scheduler.interval-ms:3600000}",
+               initialDelayString = "${recurring.scheduler.initial-delay-ms:60000}")
+    public void processDueRecurringTransactions() {
+        if (dueQueueEnabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int shard : shardResolver.shards()) {
+            for (int partition = 0; partition < partitions; partition++) {
+                final int p = partition;
+                tasks.add(() -> ShardContext.call(shard, () -> processPartition(shard, p, today)));
+            }
+        }
+        runAll(tasks);
+    }
+
+    private void runAll(List<Callable<Integer>> tasks) {
+        try {
+            int processed = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                try {
+                    processed += future.get();
+                } catch (Exception e) {
+                    logger.error("Recurring transaction partition failed", e);
+                }
+            }
+            if (processed > 0) {
+                logger.info("Processed {} due recurring transactions", processed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int processPartition(int shard, int partition, LocalDate today) {
+        String leaseName = leaseName(shard, partition);
+        if (!schedulerLeases.tryAcquire(leaseName, owner, leaseMs)) {
+            return 0;
+        }
+
+        int processed = 0;
+        try {
+            LocalDate afterDate = null;
+            Long afterId = null;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<RowKey> page = executePage(today, partition, afterDate, afterId);
+                if (page.isEmpty()) {
+                    break;
+                }
+                processed += page.size();
+
+                RowKey last = page.get(page.size() - 1);
+                afterDate = last.nextDueDate;
+                afterId = last.id;
+
+                // Extend the lease before the next page; stop if another node has taken it over.
+                if (page.size() < pageSize || !schedulerLeases.tryAcquire(leaseName, owner, leaseMs)) {
+                    break;
+                }
+            }
+        } finally {
+            schedulerLeases.release(leaseName, owner);
+        }
+        return processed;
+    }
+
+    // Reads one page and posts it in a single transaction. Returns the keys of the page as read
+    // (captured before execution moves nextDueDate forward) so the caller can continue after it.
+    private List<RowKey> executePage(LocalDate today, int partition, LocalDate afterDate, Long afterId) {
+        List<RowKey> keys = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (RecurringTransaction rt : loadPage(today, partition, afterDate, afterId)) {
+                    keys.add(new RowKey(rt.getId(), rt.getNextDueDate()));
+                    execute(rt, today);
+                }
+            });
+            return keys;
+        } catch (Exception e) {
+            logger.warn("Page of recurring transactions failed, retrying individually: {}", e.getMessage());
+        }
+
+        keys.clear();
+        for (RecurringTransaction rt : loadPage(today, partition, afterDate, afterId)) {
+            keys.add(new RowKey(rt.getId(), rt.getNextDueDate()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        recurringTransactionRepository.findById(rt.getId())
+                                .filter(RecurringTransaction::getIsActive)
+                                .ifPresent(found -> execute(found, today)));
+            } catch (DuplicateOccurrenceException ex) {
+                logger.debug("Skipping recurring transaction {}: {}", rt.getId(), ex.getMessage());
+            } catch (Exception ex) {
+                // Log error but continue processing other transactions
+                logger.error("Error processing recurring transaction {}: {}", rt.getId(), ex.getMessage());
+            }
+        }
+        return keys;
+    }
+
+    private void execute(RecurringTransaction recurringTransaction, LocalDate today) {
+        if (catchUp) {
+            recurringTransactionService.catchUpDueRecurringTransaction(recurringTransaction, today);
+        } else {
+            recurringTransactionService.executeDueRecurringTransaction(recurringTransaction);
+        }
+    }
+
+    private List<RecurringTransaction> loadPage(LocalDate today, int partition, LocalDate afterDate, Long afterId) {
+        PageRequest pageRequest = PageRequest.of(0, pageSize);
+        if (afterDate == null) {
+            return recurringTransactionRepository.findDuePartitionPage(today, partitions, partition, pageRequest);
+        }
+        return recurringTransactionRepository.findDuePartitionPageAfter(
+                today, partitions, partition, afterDate, afterId, pageRequest);
+    }
+
+    // Shard 0 keeps the lease names from before sharding
+    private static String leaseName(int shard, int partition) {
+        return shard == ShardContext.DIRECTORY ? LEASE_PREFIX + partition : LEASE_PREFIX + shard + "-" + partition;
+    }
+
+    private static String resolveOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID();
+    }
+
+    private static final class RowKey {
+        private final Long id;
+        private final LocalDate nextDueDate;
+
+        private RowKey(Long id, LocalDate nextDueDate) {
+            this.id = id;
+            this.nextDueDate = nextDueDate;
+        }
+    }
+}
@@ -2,16 +2,32 @@ package com.expensetracker.service;
 
 import com.expensetracker.dto.RecurringTransactionRequest;
 import com.expensetracker.entity.*;
+import com.expensetracker.event.TransactionEvent;
+import com.expensetracker.event.TransactionEventBus;
 import com.expensetracker.repository.AccountRepository;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.RecurringTransactionRepository;
 import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.ResourceVersions.Resource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PostConstruct;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +47,58 @@ public class RecurringTransactionService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecurringOccurrenceCache occurrenceCache;
+
+    @Autowired
+    private RecurringDueQueue dueQueue;
+
+    @Autowired
+    private CashFlowCalendarCache calendarCache;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private TransactionEventBus eventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter singleExecutions;
+
+    private Counter catchUpExecutions;
+
+    private Counter duplicateOccurrences;
+
+    private static final String INSERT_OCCURRENCE_SQL =
+            "INSERT INTO transactions (amount, description, type, transaction_date, notes, created_at, updated_at, " +
+            "user_id, category_id, account_id, recurring_transaction_id, occurrence_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CLAIM_SQL =
+            "INSERT INTO recurring_occurrences (recurring_transaction_id, occurrence_date) VALUES (?, ?)";
+
+    @PostConstruct
+    public void init() {
+        singleExecutions = Counter.builder("expense.recurring.executions")
+                .description("Recurring transaction executions")
+                .tags("mode", "single")
+                .register(meterRegistry);
+        catchUpExecutions = Counter.builder("expense.recurring.executions")
+                .description("Recurring transaction executions")
+                .tags("mode", "catch-up")
+                .register(meterRegistry);
+        duplicateOccurrences = Counter.builder("expense.recurring.duplicates")
+                .description("Recurring occurrences rejected because they were already posted")
+                .register(meterRegistry);
+    }
+
+    // Both lists are served under the current ETag, so they are read from the primary; a lagging
+    // replica could return the previous rules under the new version
     public List<RecurringTransaction> getAllRecurringTransactions(User user) {
         return recurringTransactionRepository.findByUserOrderByNextDueDateAsc(user);
     }
@@ -39,8 +107,9 @@ public class RecurringTransactionService {
         return recurringTransactionRepository.findByUserAndIsActiveTrueOrderByNextDueDateAsc(user);
     }
 
+    @Transactional(readOnly = true)
     public RecurringTransaction getRecurringTransaction(Long id, User user) {
-        return recurringTransactionRepository.findById(id)
+        return recurringTransactionRepository.findWithCategoryAndAccountById(id)
                 .filter(rt -> rt.getUser().getId().equals(user.getId()))
                 .orElseThrow(() -> new RuntimeException("Recurring transaction not found"));
     }
@@ -68,7 +137,9 @@ public class RecurringTransactionService {
         // Calculate next due date
         recurringTransaction.setNextDueDate(calculateNextDueDate(request.getStartDate(), request.getRecurrenceType()));
 
-        return recurringTransactionRepository.save(recurringTransaction);
+        RecurringTransaction saved = recurringTransactionRepository.save(recurringTransaction);
+        ruleChanged(saved);
+        return saved;
     }
 
     public RecurringTransaction updateRecurringTransaction(Long id, User user, RecurringTransactionRequest request) {
@@ -95,26 +166,48 @@ public class RecurringTransactionService {
             recurringTransaction.setNextDueDate(calculateNextDueDate(request.getStartDate(), request.getRecurrenceType()));
         }
 
-        return recurringTransactionRepository.save(recurringTransaction);
+        RecurringTransaction saved = recurringTransactionRepository.save(recurringTransaction);
+        ruleChanged(saved);
+        return saved;
     }
 
     public void deleteRecurringTransaction(Long id, User user) {
         RecurringTransaction recurringTransaction = getRecurringTransaction(id, user);
         recurringTransactionRepository.delete(recurringTransaction);
+        afterCommit(() -> dueQueue.remove(id));
+        calendarCache.invalidate(user.getId());
+        resourceVersions.changed(user.getId(), Resource.RECURRING_TRANSACTIONS);
     }
 
     public RecurringTransaction toggleRecurringTransaction(Long id, User user) {
         RecurringTransaction recurringTransaction = getRecurringTransaction(id, user);
         recurringTransaction.setIsActive(!recurringTransaction.getIsActive());
-        return recurringTransactionRepository.save(recurringTransaction);
+        RecurringTransaction saved = recurringTransactionRepository.save(recurringTransaction);
+        ruleChanged(saved);
+        return saved;
     }
 
-    public void executeRecurringTransaction(Long id, User user) {
+    // Posts the next occurrence now, even ahead of its date. A caller that names the occurrence it
+    // means is told when it has already been posted, so a repeated request does not post the
+    // one after it; without a date every call posts the next occurrence.
+    public void executeRecurringTransaction(Long id, User user, LocalDate occurrenceDate) {
         RecurringTransaction recurringTransaction = getRecurringTransaction(id, user);
 
         if (!recurringTransaction.getIsActive()) {
             throw new RuntimeException("Cannot execute inactive recurring transaction");
         }
+        if (occurrenceDate != null && !occurrenceDate.equals(recurringTransaction.getNextDueDate())) {
+            throw duplicateOccurrence(recurringTransaction, occurrenceDate);
+        }
+
+        executeDueRecurringTransaction(recurringTransaction);
+    }
+
+    // Posts the next occurrence of an already loaded recurring transaction. Used by the scheduler,
+    // which fetches due rows (with their account) in pages and must not re-load them one by one.
+    public void executeDueRecurringTransaction(RecurringTransaction recurringTransaction) {
+        LocalDate occurrenceDate = recurringTransaction.getNextDueDate();
+        claimOccurrence(recurringTransaction, occurrenceDate);
 
         // Create transaction from recurring transaction
         Transaction transaction = new Transaction();
@@ -123,12 +216,19 @@ public class RecurringTransactionService {
         transaction.setType(recurringTransaction.getType());
         transaction.setTransactionDate(LocalDate.now());
         transaction.setNotes(recurringTransaction.getNotes());
-        transaction.setUser(user);
+        transaction.setUser(recurringTransaction.getUser());
         transaction.setCategory(recurringTransaction.getCategory());
         transaction.setAccount(recurringTransaction.getAccount());
         transaction.setRecurringTransaction(recurringTransaction);
+        transaction.setOccurrenceDate(occurrenceDate);
 
+        try {
+            jdbcTemplate.update(INSERT_CLAIM_SQL, recurringTransaction.getId(), Date.valueOf(occurrenceDate));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOccurrence(recurringTransaction, occurrenceDate);
+        }
         transactionRepository.save(transaction);
+        eventBus.publish(TransactionEvent.created(transaction));
 
         // Update account balance
         updateAccountBalance(recurringTransaction.getAccount(), recurringTransaction.getAmount(), recurringTransaction.getType());
@@ -144,50 +244,154 @@ public class RecurringTransactionService {
         }
 
         recurringTransactionRepository.save(recurringTransaction);
+        ruleChanged(recurringTransaction);
+        afterCommit(singleExecutions::increment);
     }
 
-    private LocalDate calculateNextDueDate(LocalDate currentDate, RecurrenceType recurrenceType) {
-        switch (recurrenceType) {
-            case DAILY:
-                return currentDate.plusDays(1);
-            case WEEKLY:
-                return currentDate.plusWeeks(1);
-            case MONTHLY:
-                return currentDate.plusMonths(1);
-            case YEARLY:
-                return currentDate.plusYears(1);
-            default:
-                throw new IllegalArgumentException("Unknown recurrence type: " + recurrenceType);
+    public int catchUpRecurringTransaction(Long id, User user) {
+        RecurringTransaction recurringTransaction = getRecurringTransaction(id, user);
+
+        if (!recurringTransaction.getIsActive()) {
+            throw new RuntimeException("Cannot execute inactive recurring transaction");
         }
+
+        return catchUpDueRecurringTransaction(recurringTransaction, LocalDate.now());
     }
 
-    private void updateAccountBalance(Account account, java.math.BigDecimal amount, TransactionType type) {
-        if (type == TransactionType.INCOME) {
-            account.setBalance(account.getBalance().add(amount));
+    // Posts every occurrence missed up to and including the given date in one pass: the
+    // transactions go in as a single JDBC batch dated on their scheduled day, the account gets
+    // one combined balance change and nextDueDate is written once.
+    public int catchUpDueRecurringTransaction(RecurringTransaction recurringTransaction, LocalDate today) {
+        LocalDate endDate = recurringTransaction.getEndDate();
+        List<LocalDate> occurrences = new ArrayList<>();
+        LocalDate dueDate = recurringTransaction.getNextDueDate();
+        while (!dueDate.isAfter(today) && (endDate == null || !dueDate.isAfter(endDate))) {
+            occurrences.add(dueDate);
+            dueDate = calculateNextDueDate(dueDate, recurringTransaction.getRecurrenceType());
+        }
+
+        if (occurrences.isEmpty()) {
+            return 0;
+        }
+        for (LocalDate occurrence : occurrences) {
+            claimOccurrence(recurringTransaction, occurrence);
+        }
+
+        List<Object[]> claims = new ArrayList<>(occurrences.size());
+        for (LocalDate occurrence : occurrences) {
+            claims.add(new Object[] {recurringTransaction.getId(), Date.valueOf(occurrence)});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_CLAIM_SQL, claims);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOccurrence(recurringTransaction, occurrences.get(0));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(occurrences.size());
+        for (LocalDate occurrence : occurrences) {
+            rows.add(new Object[] {
+                    recurringTransaction.getAmount(),
+                    recurringTransaction.getDescription(),
+                    recurringTransaction.getType().name(),
+                    Date.valueOf(occurrence),
+                    recurringTransaction.getNotes(),
+                    now,
+                    now,
+                    recurringTransaction.getUser().getId(),
+                    recurringTransaction.getCategory().getId(),
+                    recurringTransaction.getAccount().getId(),
+                    recurringTransaction.getId(),
+                    Date.valueOf(occurrence)
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_OCCURRENCE_SQL, rows);
+        for (LocalDate occurrence : occurrences) {
+            eventBus.publish(TransactionEvent.created(recurringTransaction.getUser().getId(), recurringTransaction.getId(),
+                    new TransactionEvent.Snapshot(recurringTransaction.getAmount(), recurringTransaction.getType(), occurrence,
+                            recurringTransaction.getCategory().getId(), recurringTransaction.getAccount().getId())));
+        }
+
+        // Update account balance once for all occurrences
+        BigDecimal total = recurringTransaction.getAmount().multiply(BigDecimal.valueOf(occurrences.size()));
+        updateAccountBalance(recurringTransaction.getAccount(), total, recurringTransaction.getType());
+
+        // Check if recurring transaction should end
+        if (endDate != null && dueDate.isAfter(endDate)) {
+            recurringTransaction.setIsActive(false);
         } else {
-            account.setBalance(account.getBalance().subtract(amount));
-        }
-        accountRepository.save(account);
-    }
-
-    public void processDueRecurringTransactions() {
-        LocalDate today = LocalDate.now();
-        List<User> users = recurringTransactionRepository.findAll().stream()
-                .map(RecurringTransaction::getUser)
-                .distinct()
-                .toList();
-
-        for (User user : users) {
-            List<RecurringTransaction> dueTransactions = recurringTransactionRepository.findDueRecurringTransactions(user, today);
-            for (RecurringTransaction recurringTransaction : dueTransactions) {
-                try {
-                    executeRecurringTransaction(recurringTransaction.getId(), user);
-                } catch (Exception e) {
-                    // Log error but continue processing other transactions
-                    System.err.println("Error processing recurring transaction " + recurringTransaction.getId() + ": " + e.getMessage());
-                }
+            recurringTransaction.setNextDueDate(dueDate);
+        }
+
+        recurringTransactionRepository.save(recurringTransaction);
+        ruleChanged(recurringTransaction);
+        afterCommit(catchUpExecutions::increment);
+        return occurrences.size();
+    }
+
+    // Keeps the in-memory due queue and projected calendars in step with the row once it commits;
+    // inactive rules are dropped from the queue.
+    private void ruleChanged(RecurringTransaction recurringTransaction) {
+        Long id = recurringTransaction.getId();
+        if (Boolean.TRUE.equals(recurringTransaction.getIsActive())) {
+            LocalDate nextDueDate = recurringTransaction.getNextDueDate();
+            afterCommit(() -> dueQueue.schedule(id, nextDueDate));
+        } else {
+            afterCommit(() -> dueQueue.remove(id));
+        }
+        calendarCache.invalidate(recurringTransaction.getUser().getId());
+        resourceVersions.changed(recurringTransaction.getUser().getId(), Resource.RECURRING_TRANSACTIONS);
+    }
+
+    private void claimOccurrence(RecurringTransaction recurringTransaction, LocalDate occurrenceDate) {
+        if (!occurrenceCache.claim(recurringTransaction.getId(), occurrenceDate)) {
+            throw duplicateOccurrence(recurringTransaction, occurrenceDate);
+        }
+    }
+
+    private DuplicateOccurrenceException duplicateOccurrence(RecurringTransaction recurringTransaction, LocalDate occurrenceDate) {
+        // The rejection rolls the transaction back, so it is counted once that has happened
+        afterCompletion(duplicateOccurrences::increment);
+        return new DuplicateOccurrenceException("Recurring transaction " + recurringTransaction.getId()
+                + " has already been posted for " + occurrenceDate);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
             }
+        });
+    }
+
+    private LocalDate calculateNextDueDate(LocalDate currentDate, RecurrenceType recurrenceType) {
+        return RecurrenceIterator.advance(currentDate, recurrenceType);
+    }
+
+    private void updateAccountBalance(Account account, java.math.BigDecimal amount, TransactionType type) {
+        BigDecimal delta = type == TransactionType.INCOME ? amount : amount.negate();
+        if (accountRepository.addToBalance(account.getId(), delta) == 0) {
+            throw new RuntimeException("Balance cannot be negative");
         }
+        resourceVersions.changed(account.getUser().getId(), Resource.ACCOUNTS);
     }
 }
 
@@ -0,0 +1,12 @@
+package com.expensetracker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReportBusyException extends RuntimeException {
+
+    public ReportBusyException() {
+        super("Too many reports in progress, please retry shortly");
+    }
+}
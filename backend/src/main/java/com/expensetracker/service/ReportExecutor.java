@@ -0,0 +1,107 @@
+package com.expensetracker.service;
+
+import com.expensetracker.sharding.ShardContext;
+import com.expensetracker.sql.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs heavy read-only reports (analytics, transaction search) on their own bounded pool so slow
+ * multi-year queries cannot take the servlet threads the transactional API needs. Controllers return
+ * the future and the request thread is released while the database works.
+ *
+ * Each report runs in a read-only transaction whose timeout is the report timeout, so the JDBC
+ * statements themselves are cancelled too; the future fails with {@link ReportTimeoutException}
+ * once the timeout passes. Work that does not fit in the queue fails fast with
+ * {@link ReportBusyException}.
+ */
+@Component
+public class ReportExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService timer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long timeoutMs;
+
+    public ReportExecutor(PlatformTransactionManager transactionManager,
+                          @Value("${reports.executor.threads:4}") int threads,
+                          @Value("${reports.executor.queue-capacity:32}") int queueCapacity,
+                          @Value("${reports.timeout-ms:30000}") long timeoutMs) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeoutMs = timeoutMs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> report) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            // The report runs against the shard of the request that submitted it, and its
+            // statements count towards that request's SQL budget
+            int shard = ShardContext.current();
+            SqlStatementCounter.Scope statements = SqlStatementCounter.current();
+            task = executor.submit(() -> {
+                try {
+                    result.complete(SqlStatementCounter.call(statements, () -> ShardContext.call(shard,
+                            () -> transactionTemplate.execute(status -> report.get()))));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new ReportBusyException());
+            return result;
+        }
+
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (result.completeExceptionally(new ReportTimeoutException(timeoutMs))) {
+                task.cancel(true);
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> timeout.cancel(false));
+        return result;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        executor.shutdown();
+    }
+}
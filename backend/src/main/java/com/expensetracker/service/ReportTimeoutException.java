@@ -0,0 +1,12 @@
+package com.expensetracker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class ReportTimeoutException extends RuntimeException {
+
+    public ReportTimeoutException(long timeoutMs) {
+        super("Report did not finish within " + timeoutMs + " ms");
+    }
+}
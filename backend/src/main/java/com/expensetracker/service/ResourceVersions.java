@@ -0,0 +1,154 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.ResourceVersion;
+import com.expensetracker.repository.ResourceVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user, per-resource version counters behind the ETags of the list endpoints. Lookups are
+ * served from memory, so a conditional GET for an unchanged list is answered with 304 without
+ * touching the database.
+ *
+ * Mutating services bump the version after their transaction commits. The new value is the larger
+ * of the previous version plus one and the current time in milliseconds, which keeps versions
+ * increasing across nodes; it is also written to {@code resource_versions}, from which other nodes
+ * pick it up on their periodic refresh. A resource nobody has changed yet is at version 0.
+ */
+@Service
+public class ResourceVersions {
+
+    public enum Resource {
+        CATEGORIES, ACCOUNTS, BUDGETS, RECURRING_TRANSACTIONS
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceVersions.class);
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${etag.versions.refresh-overlap-ms:10000}")
+    private long refreshOverlapMs;
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    private TransactionTemplate writeTemplate;
+
+    private volatile LocalDateTime refreshedUpTo;
+
+    @PostConstruct
+    public void init() {
+        writeTemplate = new TransactionTemplate(transactionManager);
+        writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        refreshedUpTo = LocalDateTime.now();
+        for (ResourceVersion row : resourceVersionRepository.findAll()) {
+            versions.merge(row.getKey(), row.getVersion(), Math::max);
+        }
+    }
+
+    /**
+     * Strong ETag for the user's current version of the resource.
+     */
+    public String etag(Resource resource, Long userId) {
+        String key = key(resource, userId);
+        return "\"" + key + ":" + versions.getOrDefault(key, 0L) + "\"";
+    }
+
+    /**
+     * Bumps the given resources once the current transaction commits (immediately without one), so
+     * a client cannot revalidate against the new version before the change is visible. Changes made
+     * within one transaction are collected and each resource is bumped once.
+     */
+    public void changed(Long userId, Resource... resources) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (Resource resource : resources) {
+                bump(key(resource, userId));
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> keys = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(ResourceVersions.this::bump);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ResourceVersions.this);
+                }
+            });
+            pending = keys;
+        }
+        for (Resource resource : resources) {
+            pending.add(key(resource, userId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${etag.versions.refresh-ms:5000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = refreshedUpTo.minusNanos(refreshOverlapMs * 1_000_000L);
+        for (ResourceVersion row : resourceVersionRepository.findByUpdatedAtAfter(since)) {
+            versions.merge(row.getKey(), row.getVersion(), Math::max);
+        }
+        refreshedUpTo = now;
+    }
+
+    private void bump(String key) {
+        long version = versions.merge(key, System.currentTimeMillis(),
+                (current, now) -> Math.max(current + 1, now));
+        try {
+            persist(key, version);
+        } catch (Exception e) {
+            // Other nodes keep serving the old version until the next change; this node is current
+            logger.warn("Could not persist version of {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void persist(String key, long version) {
+        LocalDateTime now = LocalDateTime.now();
+        Boolean stored = writeTemplate.execute(status ->
+                resourceVersionRepository.advance(key, version, now) > 0 || resourceVersionRepository.existsById(key));
+        if (Boolean.TRUE.equals(stored)) {
+            return;
+        }
+        try {
+            writeTemplate.executeWithoutResult(status ->
+                    resourceVersionRepository.saveAndFlush(new ResourceVersion(key, version, now)));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another node
+            writeTemplate.executeWithoutResult(status -> resourceVersionRepository.advance(key, version, now));
+        }
+    }
+
+    private static String key(Resource resource, Long userId) {
+        return resource.name().toLowerCase() + ":" + userId;
+    }
+}
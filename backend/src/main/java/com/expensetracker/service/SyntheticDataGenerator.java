@@ -0,0 +1,533 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.AccountType;
+import com.expensetracker.entity.BudgetType;
+import com.expensetracker.entity.RecurrenceType;
+import com.expensetracker.entity.TransactionType;
+import com.expensetracker.sharding.ShardContext;
+import com.expensetracker.sharding.ShardResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads {@code synthetic-data.users} synthetic users with realistic data, for sizing hardware and
+ * for load tests. Run it as a one-off process against the database to fill, which then exits:
+ *
+ * <pre>java -jar expense-tracker.war --spring.main.web-application-type=none --synthetic-data.users=1000</pre>
+ *
+ * That database has to outlive the process, so an in-memory H2 database is refused; use MySQL or
+ * a file-based H2 URL such as {@code jdbc:h2:file:./data/expense-tracker}. Started with the web
+ * application instead, the generator loads the users and the server keeps running on them, which
+ * is also how to load-test against an in-memory database.
+ *
+ * Each user gets a few accounts and categories of their own, recurring rules whose past
+ * occurrences are already posted, {@code synthetic-data.years} of day-to-day spending and budgets
+ * for the current month. Spending is spread over the categories with Zipf-like weights and
+ * log-normal amounts around a per-category median, most of it on the first account; balances
+ * match the posted transactions, which include an opening deposit that keeps every account above
+ * zero. Users are named {@code <prefix>-0000001} onwards and all share
+ * {@code synthetic-data.password}; a re-run adds users after the existing ones. The same seed
+ * gives the same data.
+ *
+ * Rows are written with JDBC batches on the user's shard, bypassing the services, so no events are
+ * published. On MySQL keep {@code rewriteBatchedStatements=true} in the URL.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "synthetic-data.users")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // Users are inserted in the directory in chunks of this size, then filled in on the worker threads
+    private static final int USER_CHUNK = 100;
+
+    private static final String INCOME_CATEGORY = "Income";
+
+    private static final String[] CATEGORY_NAMES = {
+            "Groceries", "Coffee", "Gym", "Pets", "Gifts", "Kids", "Hobbies", "Subscriptions", "Home", "Charity"};
+
+    private static final String[] COLORS = {
+            "#FF6B6B", "#4ECDC4", "#45B7D1", "#96CEB4", "#FFEAA7", "#DDA0DD", "#98D8C8", "#F7DC6F", "#BB8FCE"};
+
+    private static final String[] ACCOUNT_NAMES = {"Checking", "Credit Card", "Cash", "Savings", "Wallet"};
+
+    private static final AccountType[] ACCOUNT_TYPES = {
+            AccountType.BANK, AccountType.CREDIT_CARD, AccountType.CASH, AccountType.SAVINGS, AccountType.WALLET};
+
+    private static final String[] MERCHANTS = {
+            "Supermarket", "Corner shop", "Bakery", "Pharmacy", "Fuel station", "Cinema", "Bookshop", "Restaurant",
+            "Cafe", "Online store", "Hardware store", "Train ticket", "Taxi", "Clothing store", "Pet shop"};
+
+    private static final RecurringTemplate[] RECURRING_TEMPLATES = {
+            new RecurringTemplate("Salary", TransactionType.INCOME, RecurrenceType.MONTHLY, 2500, 6000),
+            new RecurringTemplate("Rent", TransactionType.EXPENSE, RecurrenceType.MONTHLY, 700, 2000),
+            new RecurringTemplate("Streaming subscription", TransactionType.EXPENSE, RecurrenceType.MONTHLY, 8, 20),
+            new RecurringTemplate("Car insurance", TransactionType.EXPENSE, RecurrenceType.YEARLY, 400, 1200),
+            new RecurringTemplate("Phone bill", TransactionType.EXPENSE, RecurrenceType.MONTHLY, 20, 60),
+            new RecurringTemplate("Pocket money", TransactionType.EXPENSE, RecurrenceType.WEEKLY, 10, 40),
+            new RecurringTemplate("Savings transfer", TransactionType.EXPENSE, RecurrenceType.MONTHLY, 100, 500)
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${synthetic-data.users}")
+    private int users;
+
+    @Value("${synthetic-data.username-prefix:synthetic}")
+    private String usernamePrefix;
+
+    @Value("${synthetic-data.password:password123}")
+    private String password;
+
+    @Value("${synthetic-data.accounts-per-user:3}")
+    private int accountsPerUser;
+
+    @Value("${synthetic-data.categories-per-user:3}")
+    private int categoriesPerUser;
+
+    @Value("${synthetic-data.budgets-per-user:4}")
+    private int budgetsPerUser;
+
+    @Value("${synthetic-data.recurring-per-user:4}")
+    private int recurringPerUser;
+
+    @Value("${synthetic-data.years:3}")
+    private int years;
+
+    @Value("${synthetic-data.transactions-per-month:60}")
+    private int transactionsPerMonth;
+
+    @Value("${synthetic-data.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${synthetic-data.threads:4}")
+    private int threads;
+
+    @Value("${synthetic-data.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (users < 1 || accountsPerUser < 1 || years < 1) {
+            throw new IllegalStateException("synthetic-data.users, accounts-per-user and years must be at least 1");
+        }
+        boolean serving = applicationContext instanceof WebServerApplicationContext;
+        String url = ShardContext.call(ShardContext.DIRECTORY, () -> jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getURL()));
+        if (!serving && url.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("Synthetic data would be lost with the in-memory database " + url +
+                    " when the process exits; set spring.datasource.url to MySQL or a file-based H2 URL, " +
+                    "or start the web application with the generator");
+        }
+
+        long started = System.nanoTime();
+        String passwordHash = passwordEncoder.encode(password);
+        int first = 1 + ShardContext.call(ShardContext.DIRECTORY, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE ?", Integer.class, usernamePrefix + "-%"));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "synthetic-data-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long rows = 0;
+        try {
+            List<Future<Integer>> loads = new ArrayList<>();
+            for (int from = first; from < first + users; from += USER_CHUNK) {
+                int to = Math.min(from + USER_CHUNK, first + users);
+                List<Long> userIds = insertUsers(from, to, passwordHash);
+                for (int i = 0; i < userIds.size(); i++) {
+                    Long userId = userIds.get(i);
+                    int number = from + i;
+                    loads.add(workers.submit(() -> loadUser(userId, number)));
+                }
+            }
+            for (Future<Integer> load : loads) {
+                rows += load.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        logger.info("Generated {} synthetic users ({}-{} to {}-{}) with {} rows in {} s",
+                users, usernamePrefix, format(first), usernamePrefix, format(first + users - 1), rows,
+                (System.nanoTime() - started) / 1_000_000_000L);
+
+        if (!serving) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private List<Long> insertUsers(int from, int to, String passwordHash) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(to - from);
+        for (int number = from; number < to; number++) {
+            String username = usernamePrefix + "-" + format(number);
+            batch.add(new Object[] {username, username + "@example.com", passwordHash,
+                    "Synthetic", "User " + number, now, now});
+        }
+
+        // Zero-padded names sort like their numbers, so the chunk is one range
+        return ShardContext.call(ShardContext.DIRECTORY, () -> {
+            jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, first_name, last_name, " +
+                    "security_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 0, ?, ?)", batch);
+            return jdbcTemplate.queryForList("SELECT id FROM users WHERE username BETWEEN ? AND ? ORDER BY username",
+                    Long.class, usernamePrefix + "-" + format(from), usernamePrefix + "-" + format(to - 1));
+        });
+    }
+
+    private int loadUser(Long userId, int number) {
+        Random random = new Random(seed * 1_000_003L + number);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return ShardContext.call(shardResolver.shardFor(userId),
+                () -> transactionTemplate.execute(status -> new UserData(userId, random).load()));
+    }
+
+    private static String format(int number) {
+        return String.format("%07d", number);
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[] {"id"});
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    /**
+     * Everything generated for one user; runs inside a transaction on the user's shard.
+     */
+    private final class UserData {
+
+        private final Long userId;
+
+        private final Random random;
+
+        private final LocalDate today = LocalDate.now();
+
+        private final LocalDate firstDay;
+
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        private final List<Long> expenseCategories = new ArrayList<>();
+
+        private final List<Double> categoryWeights = new ArrayList<>();
+
+        private final List<Double> categoryMedians = new ArrayList<>();
+
+        private final Map<Long, BigDecimal> categorySpending = new HashMap<>();
+
+        private Long incomeCategory;
+
+        private final List<Long> accounts = new ArrayList<>();
+
+        private final List<Double> accountWeights = new ArrayList<>();
+
+        private final Map<Long, BigDecimal> balances = new HashMap<>();
+
+        private final List<Object[]> transactions = new ArrayList<>();
+
+        private final List<Object[]> occurrences = new ArrayList<>();
+
+        private int rows;
+
+        private UserData(Long userId, Random random) {
+            this.userId = userId;
+            this.random = random;
+            this.firstDay = today.minusYears(years).withDayOfMonth(1);
+        }
+
+        private int load() {
+            createCategories();
+            createAccounts();
+            createRecurringTransactions();
+            createDailyTransactions();
+            createOpeningBalances();
+            flushTransactions();
+            createBudgets();
+            updateBalances();
+            return rows;
+        }
+
+        private void createCategories() {
+            List<Map<String, Object>> defaults = jdbcTemplate.queryForList(
+                    "SELECT id, name FROM categories WHERE is_default = ? ORDER BY id", true);
+            for (Map<String, Object> category : defaults) {
+                Long id = ((Number) category.get("id")).longValue();
+                if (INCOME_CATEGORY.equals(category.get("name"))) {
+                    incomeCategory = id;
+                } else {
+                    expenseCategories.add(id);
+                }
+            }
+
+            int offset = random.nextInt(CATEGORY_NAMES.length);
+            for (int i = 0; i < categoriesPerUser; i++) {
+                String name = CATEGORY_NAMES[(offset + i) % CATEGORY_NAMES.length]
+                        + (i < CATEGORY_NAMES.length ? "" : " " + (i / CATEGORY_NAMES.length + 1));
+                expenseCategories.add(insert("INSERT INTO categories (name, description, color, is_default, " +
+                                "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        name, "Synthetic category", COLORS[random.nextInt(COLORS.length)], false, now, now, userId));
+                rows++;
+            }
+            if (incomeCategory == null) {
+                incomeCategory = insert("INSERT INTO categories (name, description, color, is_default, " +
+                                "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        INCOME_CATEGORY, "Synthetic category", COLORS[0], false, now, now, userId);
+                rows++;
+            }
+            if (expenseCategories.isEmpty()) {
+                expenseCategories.add(incomeCategory);
+            }
+
+            // A few categories take most of the spending, each around its own typical amount
+            Collections.shuffle(expenseCategories, random);
+            for (int rank = 0; rank < expenseCategories.size(); rank++) {
+                categoryWeights.add(1.0 / (rank + 1));
+                categoryMedians.add(Math.exp(Math.log(5) + random.nextDouble() * (Math.log(150) - Math.log(5))));
+            }
+        }
+
+        private void createAccounts() {
+            for (int i = 0; i < accountsPerUser; i++) {
+                int kind = i % ACCOUNT_NAMES.length;
+                String name = i < ACCOUNT_NAMES.length ? ACCOUNT_NAMES[kind] : ACCOUNT_NAMES[kind] + " " + (i + 1);
+                long id = insert("INSERT INTO accounts (name, description, type, balance, is_active, " +
+                                "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        name, "Synthetic account", ACCOUNT_TYPES[kind].name(), BigDecimal.ZERO, true, now, now, userId);
+                accounts.add(id);
+                accountWeights.add(i == 0 ? 6.0 : 4.0 / Math.max(1, accountsPerUser - 1));
+                balances.put(id, BigDecimal.ZERO);
+                rows++;
+            }
+        }
+
+        private void createRecurringTransactions() {
+            for (int i = 0; i < recurringPerUser; i++) {
+                RecurringTemplate template = RECURRING_TEMPLATES[i % RECURRING_TEMPLATES.length];
+                BigDecimal amount = money(template.minAmount + random.nextDouble() * (template.maxAmount - template.minAmount));
+                Long category = template.type == TransactionType.INCOME ? incomeCategory : pick(expenseCategories, categoryWeights);
+                Long account = accounts.get(0);
+                LocalDate start = firstDay.plusDays(random.nextInt(28));
+
+                // Occurrences up to today are posted; the scheduler carries on from the next one
+                LocalDate next = start;
+                List<LocalDate> posted = new ArrayList<>();
+                while (!next.isAfter(today)) {
+                    posted.add(next);
+                    next = RecurrenceIterator.advance(next, template.recurrenceType);
+                }
+
+                long id = insert("INSERT INTO recurring_transactions (description, amount, type, recurrence_type, " +
+                                "start_date, end_date, next_due_date, notes, is_active, created_at, updated_at, " +
+                                "user_id, category_id, account_id) VALUES (?, ?, ?, ?, ?, NULL, ?, NULL, ?, ?, ?, ?, ?, ?)",
+                        template.description, amount, template.type.name(), template.recurrenceType.name(),
+                        Date.valueOf(start), Date.valueOf(next), true,
+                        Timestamp.valueOf(start.atTime(9, 0)), now, userId, category, account);
+                rows++;
+
+                for (LocalDate date : posted) {
+                    addTransaction(amount, template.description, template.type, date, null, category, account, id);
+                    occurrences.add(new Object[] {id, Date.valueOf(date)});
+                }
+            }
+        }
+
+        private void createDailyTransactions() {
+            for (LocalDate month = firstDay; !month.isAfter(today); month = month.plusMonths(1)) {
+                int count = (int) Math.round(transactionsPerMonth * (1 + 0.2 * random.nextGaussian()));
+                for (int i = 0; i < count; i++) {
+                    LocalDate date = month.plusDays(random.nextInt(month.lengthOfMonth()));
+                    if (date.isAfter(today)) {
+                        continue;
+                    }
+                    Long account = pick(accounts, accountWeights);
+                    String notes = random.nextInt(10) == 0 ? "Synthetic notes " + random.nextInt(1000) : null;
+
+                    if (random.nextInt(25) == 0) {
+                        BigDecimal amount = money(20 + random.nextDouble() * 480);
+                        addTransaction(amount, "Refund or side income", TransactionType.INCOME, date, notes,
+                                incomeCategory, account, null);
+                    } else {
+                        int index = pickIndex(categoryWeights);
+                        Long category = expenseCategories.get(index);
+                        BigDecimal amount = money(categoryMedians.get(index) * Math.exp(0.6 * random.nextGaussian()));
+                        addTransaction(amount, MERCHANTS[random.nextInt(MERCHANTS.length)], TransactionType.EXPENSE,
+                                date, notes, category, account, null);
+                        categorySpending.merge(category, amount, BigDecimal::add);
+                    }
+                }
+            }
+        }
+
+        // Salaries go to the first account and spending is spread over all of them, so each account
+        // gets an opening deposit that leaves it with a positive balance, as the entity requires
+        private void createOpeningBalances() {
+            for (Long account : accounts) {
+                BigDecimal closing = money(500 + random.nextDouble() * 2500);
+                BigDecimal deposit = closing.subtract(balances.get(account));
+                if (deposit.signum() > 0) {
+                    addTransaction(deposit, "Opening balance", TransactionType.INCOME, firstDay, null,
+                            incomeCategory, account, null);
+                }
+            }
+        }
+
+        private void createBudgets() {
+            if (budgetsPerUser < 1) {
+                return;
+            }
+            LocalDate start = today.withDayOfMonth(1);
+            LocalDate end = today.withDayOfMonth(today.lengthOfMonth());
+            BigDecimal months = BigDecimal.valueOf(Math.max(1, years * 12L));
+
+            // One overall budget, the rest on the categories with the most spending
+            BigDecimal total = categorySpending.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            List<Long> categories = new ArrayList<>(categorySpending.keySet());
+            categories.sort((a, b) -> categorySpending.get(b).compareTo(categorySpending.get(a)));
+
+            List<Object[]> budgets = new ArrayList<>();
+            for (int i = 0; i < budgetsPerUser && i <= categories.size(); i++) {
+                Long category = i == 0 ? null : categories.get(i - 1);
+                BigDecimal spending = category == null ? total : categorySpending.get(category);
+                BigDecimal amount = spending.divide(months, 2, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(0.9 + random.nextDouble() * 0.4))
+                        .setScale(0, RoundingMode.HALF_UP).max(BigDecimal.TEN);
+                budgets.add(new Object[] {amount, Date.valueOf(start), Date.valueOf(end), BudgetType.MONTHLY.name(),
+                        80, true, now, now, userId, category});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO budgets (amount, start_date, end_date, type, alert_threshold, " +
+                    "is_active, created_at, updated_at, user_id, category_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", budgets);
+            rows += budgets.size();
+        }
+
+        private void updateBalances() {
+            List<Object[]> updates = new ArrayList<>(balances.size());
+            balances.forEach((account, balance) -> updates.add(new Object[] {balance, account}));
+            jdbcTemplate.batchUpdate("UPDATE accounts SET balance = ? WHERE id = ?", updates);
+        }
+
+        private void addTransaction(BigDecimal amount, String description, TransactionType type, LocalDate date,
+                                    String notes, Long category, Long account, Long recurringTransaction) {
+            Timestamp createdAt = Timestamp.valueOf(date.atTime(8 + random.nextInt(14), random.nextInt(60)));
+            transactions.add(new Object[] {amount, description, type.name(), Date.valueOf(date), notes, createdAt,
+                    createdAt, userId, category, account, recurringTransaction,
+                    recurringTransaction != null ? Date.valueOf(date) : null});
+            balances.merge(account, type == TransactionType.INCOME ? amount : amount.negate(), BigDecimal::add);
+            if (transactions.size() >= batchSize) {
+                flushTransactions();
+            }
+        }
+
+        private void flushTransactions() {
+            if (!transactions.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (amount, description, type, transaction_date, " +
+                        "notes, created_at, updated_at, user_id, category_id, account_id, recurring_transaction_id, " +
+                        "occurrence_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactions);
+                rows += transactions.size();
+                transactions.clear();
+            }
+            if (!occurrences.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO recurring_occurrences (recurring_transaction_id, " +
+                        "occurrence_date) VALUES (?, ?)", occurrences);
+                rows += occurrences.size();
+                occurrences.clear();
+            }
+        }
+
+        private <T> T pick(List<T> values, List<Double> weights) {
+            return values.get(pickIndex(weights));
+        }
+
+        private int pickIndex(List<Double> weights) {
+            double total = 0;
+            for (double weight : weights) {
+                total += weight;
+            }
+            double point = random.nextDouble() * total;
+            for (int i = 0; i < weights.size(); i++) {
+                point -= weights.get(i);
+                if (point < 0) {
+                    return i;
+                }
+            }
+            return weights.size() - 1;
+        }
+
+        private BigDecimal money(double amount) {
+            return BigDecimal.valueOf(Math.max(0.01, amount)).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    private static final class RecurringTemplate {
+        private final String description;
+        private final TransactionType type;
+        private final RecurrenceType recurrenceType;
+        private final double minAmount;
+        private final double maxAmount;
+
+        private RecurringTemplate(String description, TransactionType type, RecurrenceType recurrenceType,
+                                  double minAmount, double maxAmount) {
+            this.description = description;
+            this.type = type;
+            this.recurrenceType = recurrenceType;
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+        }
+    }
+}
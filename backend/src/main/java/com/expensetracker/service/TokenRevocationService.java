@@ -0,0 +1,163 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.TokenRevocation;
+import com.expensetracker.repository.TokenRevocationRepository;
+import com.expensetracker.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persists token revocations and keeps this node's {@link TokenRevocationList} in step with the
+ * {@code token_revocations} table. Local revocations are applied once their transaction commits;
+ * revocations made on other nodes arrive through the periodic incremental refresh.
+ */
+@Service
+@Transactional
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${spring.security.jwt.expiration}")
+    private Long expiration;
+
+    // Re-reads a little before the previous refresh to cover in-flight commits and clock skew
+    @Value("${security.revocation.refresh-overlap-ms:60000}")
+    private long refreshOverlapMs;
+
+    private volatile LocalDateTime refreshedUpTo;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Revokes a single token. Tokens issued before ids were embedded cannot be revoked one by one
+     * and simply run until they expire.
+     */
+    public void revokeToken(Claims claims, Long userId) {
+        String tokenId = claims.getId();
+        if (tokenId == null || userId == null || tokenRevocationRepository.existsByJti(tokenId)) {
+            return;
+        }
+
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setJti(tokenId);
+        revocation.setUserId(userId);
+        revocation.setRevokedAt(LocalDateTime.now());
+        revocation.setExpiresAt(toLocalDateTime(claims.getExpiration()));
+        tokenRevocationRepository.save(revocation);
+
+        afterCommit(() -> tokenRevocationList.revokeToken(tokenId));
+    }
+
+    /**
+     * Revokes every token issued to the user before now.
+     */
+    public void revokeAllTokens(Long userId) {
+        Date notBefore = new Date();
+        LocalDateTime now = toLocalDateTime(notBefore);
+
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setNotBefore(now);
+        revocation.setRevokedAt(now);
+        revocation.setExpiresAt(now.plusNanos(expiration * 1_000_000L));
+        tokenRevocationRepository.save(revocation);
+
+        afterCommit(() -> tokenRevocationList.revokeUserTokensBefore(userId, notBefore));
+    }
+
+    // Reads from the primary: a replica behind by more than the overlap would let this node skip
+    // revocations for good once refreshedUpTo has moved past them
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = refreshedUpTo.minusNanos(refreshOverlapMs * 1_000_000L);
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            apply(revocation);
+        }
+        refreshedUpTo = now;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-ms:3600000}")
+    public void purgeExpired() {
+        int purged = tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired token revocations", purged);
+        }
+        reload();
+    }
+
+    private void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> revocations = tokenRevocationRepository.findByExpiresAtAfter(now);
+
+        Set<String> tokenIds = new HashSet<>();
+        Map<Long, Long> notBefore = new HashMap<>();
+        for (TokenRevocation revocation : revocations) {
+            if (revocation.getJti() != null) {
+                tokenIds.add(revocation.getJti());
+            } else if (revocation.getNotBefore() != null) {
+                notBefore.merge(revocation.getUserId(), toEpochMilli(revocation.getNotBefore()), Math::max);
+            }
+        }
+        tokenRevocationList.reset(tokenIds, notBefore);
+        refreshedUpTo = now;
+        logger.debug("Loaded {} token revocations", revocations.size());
+    }
+
+    private void apply(TokenRevocation revocation) {
+        if (revocation.getJti() != null) {
+            tokenRevocationList.revokeToken(revocation.getJti());
+        } else if (revocation.getNotBefore() != null) {
+            tokenRevocationList.revokeUserTokensBefore(revocation.getUserId(),
+                    new Date(toEpochMilli(revocation.getNotBefore())));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
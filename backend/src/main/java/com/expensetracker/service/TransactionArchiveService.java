@@ -0,0 +1,202 @@
+package com.expensetracker.service;
+
+import com.expensetracker.repository.SchedulerLeases;
+import com.expensetracker.sharding.ShardContext;
+import com.expensetracker.sharding.ShardResolver;
+import com.expensetracker.startup.DeferredStartup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves the closed years of inactive users from {@code transactions} to the compressed
+ * {@code transactions_archive}, keeping the live table (and its recent partitions) small.
+ *
+ * A year is closed once it is older than the last {@code transactions.archive.keep-years} calendar
+ * years; the current year is always kept. A user is inactive when they have no active recurring
+ * transactions and have neither entered nor dated a transaction within
+ * {@code transactions.archive.inactive-days}. Each user is moved in one database transaction, so
+ * readers see their rows in exactly one of the two tables. The job runs on one node at a time
+ * under a {@code scheduler_leases} lease and goes through the shards one after the other.
+ */
+@Service
+public class TransactionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    private static final String LEASE_NAME = "transactions-archive";
+
+    private static final String FIND_INACTIVE_USERS_SQL =
+            "SELECT DISTINCT t.user_id FROM transactions t WHERE t.transaction_date < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM transactions r WHERE r.user_id = t.user_id " +
+            "AND (r.transaction_date >= ? OR r.created_at >= ?)) " +
+            "AND NOT EXISTS (SELECT 1 FROM recurring_transactions rt WHERE rt.user_id = t.user_id AND rt.is_active = TRUE)";
+
+    private static final String COLUMNS =
+            "id, amount, description, type, transaction_date, notes, created_at, updated_at, " +
+            "user_id, category_id, account_id, recurring_transaction_id, occurrence_date";
+
+    private static final String COPY_SQL =
+            "INSERT INTO transactions_archive (" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", ? FROM transactions WHERE user_id = ? AND transaction_date < ?";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM transactions WHERE user_id = ? AND transaction_date < ?";
+
+    private static final String RESTORE_SQL =
+            "INSERT INTO transactions (" + COLUMNS + ") SELECT " + COLUMNS + " FROM transactions_archive WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchedulerLeases schedulerLeases;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private DeferredStartup deferredStartup;
+
+    @Value("${transactions.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transactions.archive.keep-years:2}")
+    private int keepYears;
+
+    @Value("${transactions.archive.inactive-days:365}")
+    private int inactiveDays;
+
+    @Value("${transactions.archive.lease-ms:3600000}")
+    private long leaseMs;
+
+    private final String owner = "archive-" + UUID.randomUUID();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Hibernate creates the table uncompressed; switching the row format while it is still empty is cheap
+    @EventListener(ApplicationReadyEvent.class)
+    public void compressArchiveTables() {
+        deferredStartup.run("transactions-archive-compression", () -> {
+            for (int shard : shardResolver.shards()) {
+                ShardContext.run(shard, this::compressArchiveTable);
+            }
+        });
+    }
+
+    private void compressArchiveTable() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (product == null || !product.toLowerCase().contains("mysql")) {
+                return;
+            }
+            List<String> rowFormat = jdbcTemplate.queryForList(
+                    "SELECT ROW_FORMAT FROM information_schema.TABLES " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions_archive'", String.class);
+            if (!rowFormat.isEmpty() && !"Compressed".equalsIgnoreCase(rowFormat.get(0))) {
+                jdbcTemplate.execute("ALTER TABLE transactions_archive ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8");
+                logger.info("Switched transactions_archive of shard {} to compressed rows", ShardContext.current());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not compress transactions_archive: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${transactions.archive.cron:0 30 3 * * *}")
+    public void archiveClosedYears() {
+        if (!enabled || !schedulerLeases.tryAcquire(LEASE_NAME, owner, leaseMs)) {
+            return;
+        }
+
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate archiveBefore = today.minusYears(Math.max(1, keepYears) - 1L).withDayOfYear(1);
+            LocalDate activeSince = today.minusDays(inactiveDays);
+            for (int shard : shardResolver.shards()) {
+                if (!ShardContext.call(shard, () -> archiveShard(archiveBefore, activeSince))) {
+                    break;
+                }
+            }
+        } finally {
+            schedulerLeases.release(LEASE_NAME, owner);
+        }
+    }
+
+    // Returns false once the lease has been lost
+    private boolean archiveShard(LocalDate archiveBefore, LocalDate activeSince) {
+        List<Long> userIds = jdbcTemplate.queryForList(FIND_INACTIVE_USERS_SQL, Long.class,
+                Date.valueOf(archiveBefore), Date.valueOf(activeSince), Timestamp.valueOf(activeSince.atStartOfDay()));
+
+        int users = 0;
+        int moved = 0;
+        boolean leased = true;
+        for (Long userId : userIds) {
+            try {
+                Integer rows = transactionTemplate.execute(status -> archiveUser(userId, archiveBefore));
+                moved += rows != null ? rows : 0;
+                users++;
+            } catch (Exception e) {
+                logger.error("Could not archive transactions of user {}: {}", userId, e.getMessage());
+            }
+            // Extend the lease between users; stop if another node has taken it over
+            if (!schedulerLeases.tryAcquire(LEASE_NAME, owner, leaseMs)) {
+                leased = false;
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} transactions before {} for {} inactive users on shard {}",
+                    moved, archiveBefore, users, ShardContext.current());
+        }
+        return leased;
+    }
+
+    /**
+     * Moves one archived transaction back to the live table so it can be changed, within the
+     * caller's transaction. Returns false if the archive does not hold it.
+     */
+    public boolean restore(Long id) {
+        if (jdbcTemplate.update(RESTORE_SQL, id) == 0) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM transactions_archive WHERE id = ?", id);
+        return true;
+    }
+
+    private int archiveUser(Long userId, LocalDate archiveBefore) {
+        Date before = Date.valueOf(archiveBefore);
+        int copied = jdbcTemplate.update(COPY_SQL, Timestamp.valueOf(LocalDateTime.now()), userId, before);
+        int deleted = jdbcTemplate.update(DELETE_SQL, userId, before);
+        if (copied != deleted) {
+            throw new IllegalStateException("copied " + copied + " rows but deleted " + deleted);
+        }
+        return deleted;
+    }
+
+}
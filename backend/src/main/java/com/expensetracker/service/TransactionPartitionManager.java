@@ -0,0 +1,201 @@
+package com.expensetracker.service;
+
+import com.expensetracker.sharding.ShardContext;
+import com.expensetracker.sharding.ShardResolver;
+import com.expensetracker.startup.DeferredStartup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@code transactions} range-partitioned by year of {@code transaction_date} on MySQL, so
+ * queries bounded by date only read the partitions for the years they cover.
+ *
+ * On first start against an unpartitioned table the foreign keys and unique keys are dropped (a
+ * partitioned table cannot have them), existing recurring occurrences are copied to
+ * {@code recurring_occurrences}, the primary key becomes (id, transaction_date) and the table is
+ * rebuilt with one partition per year plus {@code pfuture}. This rebuild locks the table for its
+ * duration. Afterwards partitions for the coming years are split off {@code pfuture} ahead of time.
+ * All DDL runs under a MySQL named lock so only one instance does it. Every shard is handled the
+ * same way.
+ */
+@Service
+public class TransactionPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionManager.class);
+
+    private static final String LOCK_NAME = "expense_tracker.transactions_partitioning";
+
+    private static final String FUTURE_PARTITION = "pfuture";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private DeferredStartup deferredStartup;
+
+    @Value("${transactions.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transactions.partitioning.years-ahead:1}")
+    private int yearsAhead;
+
+    @Value("${transactions.partitioning.lock-timeout-seconds:600}")
+    private int lockTimeoutSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void partition() {
+        deferredStartup.run("transactions-partitioning", () -> forEachShard(jdbc -> {
+            if (!isPartitioned(jdbc)) {
+                convert(jdbc);
+            }
+            addComingYears(jdbc);
+        }));
+    }
+
+    @Scheduled(cron = "${transactions.partitioning.cron:0 0 3 1 * *}")
+    public void maintain() {
+        forEachShard(jdbc -> {
+            if (isPartitioned(jdbc)) {
+                addComingYears(jdbc);
+            }
+        });
+    }
+
+    private void forEachShard(Consumer<JdbcTemplate> work) {
+        if (!enabled) {
+            return;
+        }
+        for (int shard : shardResolver.shards()) {
+            ShardContext.run(shard, () -> {
+                if (isMySql()) {
+                    withLock(LOCK_NAME + "." + shard, work);
+                }
+            });
+        }
+    }
+
+    private void convert(JdbcTemplate jdbc) {
+        logger.info("Partitioning the transactions table by year; the table is locked until this completes");
+
+        List<String> foreignKeys = jdbc.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+                "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions'", String.class);
+        for (String foreignKey : foreignKeys) {
+            jdbc.execute("ALTER TABLE transactions DROP FOREIGN KEY `" + foreignKey + "`");
+        }
+
+        jdbc.update("INSERT IGNORE INTO recurring_occurrences (recurring_transaction_id, occurrence_date) " +
+                "SELECT recurring_transaction_id, occurrence_date FROM transactions " +
+                "WHERE recurring_transaction_id IS NOT NULL AND occurrence_date IS NOT NULL");
+
+        List<String> uniqueKeys = jdbc.queryForList(
+                "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' " +
+                "AND NON_UNIQUE = 0 AND INDEX_NAME <> 'PRIMARY'", String.class);
+        for (String uniqueKey : uniqueKeys) {
+            jdbc.execute("ALTER TABLE transactions DROP INDEX `" + uniqueKey + "`");
+        }
+
+        Integer firstYear = jdbc.queryForObject("SELECT MIN(YEAR(transaction_date)) FROM transactions", Integer.class);
+        int currentYear = LocalDate.now().getYear();
+        int lastYear = currentYear + Math.max(0, yearsAhead);
+
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (int year = firstYear != null ? Math.min(firstYear, currentYear) : currentYear; year <= lastYear; year++) {
+            partitions.add(yearPartition(year));
+        }
+        partitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        // One rebuild for both the key change and the partitioning
+        jdbc.execute("ALTER TABLE transactions DROP PRIMARY KEY, ADD PRIMARY KEY (id, transaction_date) " +
+                "PARTITION BY RANGE COLUMNS(transaction_date) " + partitions);
+        logger.info("Partitioned the transactions table into yearly partitions up to {}", lastYear);
+    }
+
+    // Splits the (normally empty) future partition so the coming years get their own partitions
+    private void addComingYears(JdbcTemplate jdbc) {
+        List<String> names = jdbc.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL",
+                String.class);
+        if (!names.contains(FUTURE_PARTITION)) {
+            return;
+        }
+
+        int lastPartitioned = names.stream()
+                .filter(name -> name.matches("p\\d{4}"))
+                .mapToInt(name -> Integer.parseInt(name.substring(1)))
+                .max()
+                .orElse(LocalDate.now().getYear() - 1);
+        int lastYear = LocalDate.now().getYear() + Math.max(0, yearsAhead);
+        if (lastPartitioned >= lastYear) {
+            return;
+        }
+
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (int year = lastPartitioned + 1; year <= lastYear; year++) {
+            partitions.add(yearPartition(year));
+        }
+        partitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        jdbc.execute("ALTER TABLE transactions REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO " + partitions);
+        logger.info("Added transactions partitions up to {}", lastYear);
+    }
+
+    private static String yearPartition(int year) {
+        return "PARTITION p" + year + " VALUES LESS THAN ('" + (year + 1) + "-01-01')";
+    }
+
+    private boolean isPartitioned(JdbcTemplate jdbc) {
+        Integer partitions = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL",
+                Integer.class);
+        return partitions != null && partitions > 0;
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+
+    // Named locks belong to a connection, so the DDL runs on the connection that holds the lock
+    private void withLock(String lockName, Consumer<JdbcTemplate> work) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                Integer locked = jdbc.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class, lockName, lockTimeoutSeconds);
+                if (locked == null || locked != 1) {
+                    logger.warn("Could not get the transactions partitioning lock, skipping");
+                    return null;
+                }
+                try {
+                    work.accept(jdbc);
+                } finally {
+                    jdbc.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, lockName);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // Queries work the same on an unpartitioned table, they just read more of it
+            logger.error("Could not maintain the transactions partitions", e);
+        }
+    }
+}
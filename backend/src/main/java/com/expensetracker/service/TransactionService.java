@@ -2,7 +2,10 @@ package com.expensetracker.service;
 
 import com.expensetracker.dto.TransactionRequest;
 import com.expensetracker.entity.*;
+import com.expensetracker.event.TransactionEvent;
+import com.expensetracker.event.TransactionEventBus;
 import com.expensetracker.repository.*;
+import com.expensetracker.service.ResourceVersions.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Transactional
@@ -31,10 +35,24 @@ public class TransactionService {
     @Autowired
     private RecurringTransactionRepository recurringTransactionRepository;
 
+    @Autowired
+    private CashFlowCalendarCache calendarCache;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private TransactionEventBus eventBus;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Transactional(readOnly = true)
     public Page<Transaction> getAllTransactions(User user, Pageable pageable) {
         return transactionRepository.findByUserOrderByTransactionDateDesc(user, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> searchTransactions(User user, LocalDate startDate, LocalDate endDate, 
                                                Long categoryId, Long accountId) {
         if (startDate == null) startDate = LocalDate.now().minusMonths(1);
@@ -52,9 +70,24 @@ public class TransactionService {
         }
     }
 
+    // Like the lists, reads by id span the live table and the archive
+    @Transactional(readOnly = true)
     public Transaction getTransaction(User user, Long id) {
-        return transactionRepository.findById(id)
+        Optional<Transaction> live = transactionRepository.findWithCategoryAndAccountById(id);
+        return (live.isPresent() ? live : transactionRepository.findArchivedById(id))
+                .filter(transaction -> transaction.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+    }
+
+    // Changes are made in the live table, so an archived transaction is moved back there first
+    private Transaction getLiveTransaction(User user, Long id) {
+        Optional<Transaction> live = transactionRepository.findWithCategoryAndAccountById(id);
+        if (!live.isPresent() && transactionRepository.findArchivedById(id)
                 .filter(transaction -> transaction.getUser().getId().equals(user.getId()))
+                .isPresent() && transactionArchiveService.restore(id)) {
+            live = transactionRepository.findWithCategoryAndAccountById(id);
+        }
+        return live.filter(transaction -> transaction.getUser().getId().equals(user.getId()))
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
     }
 
@@ -83,16 +116,19 @@ public class TransactionService {
 
         // Update account balance
         updateAccountBalance(account, request.getAmount(), request.getType());
+        calendarCache.invalidate(user.getId());
+        resourceVersions.changed(user.getId(), Resource.ACCOUNTS);
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        eventBus.publish(TransactionEvent.created(saved));
+        return saved;
     }
 
     public Transaction updateTransaction(User user, Long id, TransactionRequest request) {
-        Transaction transaction = getTransaction(user, id);
-        
-        // Revert old transaction's impact on account balance
-        updateAccountBalance(transaction.getAccount(), transaction.getAmount(), 
-                transaction.getType() == TransactionType.EXPENSE ? TransactionType.INCOME : TransactionType.EXPENSE);
+        Transaction transaction = getLiveTransaction(user, id);
+        TransactionEvent.Snapshot before = TransactionEvent.Snapshot.of(transaction);
+        Account previousAccount = transaction.getAccount();
+        java.math.BigDecimal revert = balanceDelta(transaction.getAmount(), transaction.getType()).negate();
 
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found"));
@@ -114,29 +150,48 @@ public class TransactionService {
             transaction.setRecurringTransaction(recurringTransaction);
         }
 
-        // Apply new transaction's impact on account balance
-        updateAccountBalance(account, request.getAmount(), request.getType());
+        // Revert the old impact on the account balance and apply the new one; on the same account as
+        // one change, so only the resulting balance has to stay non-negative
+        java.math.BigDecimal apply = balanceDelta(request.getAmount(), request.getType());
+        if (previousAccount.getId().equals(account.getId())) {
+            changeBalance(account, revert.add(apply));
+        } else {
+            changeBalance(previousAccount, revert);
+            changeBalance(account, apply);
+        }
+        calendarCache.invalidate(user.getId());
+        resourceVersions.changed(user.getId(), Resource.ACCOUNTS);
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        eventBus.publish(TransactionEvent.updated(before, saved));
+        return saved;
     }
 
     public void deleteTransaction(User user, Long id) {
-        Transaction transaction = getTransaction(user, id);
+        Transaction transaction = getLiveTransaction(user, id);
         
         // Revert transaction's impact on account balance
         updateAccountBalance(transaction.getAccount(), transaction.getAmount(), 
                 transaction.getType() == TransactionType.EXPENSE ? TransactionType.INCOME : TransactionType.EXPENSE);
 
         transactionRepository.delete(transaction);
+        calendarCache.invalidate(user.getId());
+        resourceVersions.changed(user.getId(), Resource.ACCOUNTS);
+        eventBus.publish(TransactionEvent.deleted(transaction));
     }
 
     private void updateAccountBalance(Account account, java.math.BigDecimal amount, TransactionType type) {
-        if (type == TransactionType.INCOME) {
-            account.setBalance(account.getBalance().add(amount));
-        } else {
-            account.setBalance(account.getBalance().subtract(amount));
+        changeBalance(account, balanceDelta(amount, type));
+    }
+
+    private void changeBalance(Account account, java.math.BigDecimal delta) {
+        if (accountRepository.addToBalance(account.getId(), delta) == 0) {
+            throw new RuntimeException("Balance cannot be negative");
         }
-        accountRepository.save(account);
+    }
+
+    private static java.math.BigDecimal balanceDelta(java.math.BigDecimal amount, TransactionType type) {
+        return type == TransactionType.INCOME ? amount : amount.negate();
     }
 }
 
@@ -23,6 +23,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return user;
     }
+
+    @Transactional
+    public User loadUserById(Long id) throws UsernameNotFoundException {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with id: " + id));
+    }
 }
 
 
@@ -5,6 +5,8 @@ import com.expensetracker.dto.UserProfileDto;
 import com.expensetracker.dto.UserProfileRequest;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.security.PasswordHashingExecutor;
+import com.expensetracker.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,16 @@ public class UserProfileService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Transactional(readOnly = true)
     public UserProfileDto getUserProfile(User user) {
         UserProfileDto dto = new UserProfileDto();
         dto.setId(user.getId());
@@ -30,7 +42,11 @@ public class UserProfileService {
         return dto;
     }
 
-    public UserProfileDto updateUserProfile(User user, UserProfileRequest request) {
+    // The principal may be the instance PrincipalCache hands to other requests, so changes are made
+    // to a managed copy and the cache entry is dropped once they commit
+    public UserProfileDto updateUserProfile(User principal, UserProfileRequest request) {
+        User user = loadUser(principal);
+
         // Check if username is already taken by another user
         if (!user.getUsername().equals(request.getUsername())) {
             if (userRepository.findByUsername(request.getUsername()).isPresent()) {
@@ -51,18 +67,31 @@ public class UserProfileService {
         user.setLastName(request.getLastName());
 
         User updatedUser = userRepository.save(user);
+        principalCache.evictAfterCommit(user.getId());
         return getUserProfile(updatedUser);
     }
 
-    public void changePassword(User user, ChangePasswordRequest request) {
+    // Returns the updated user, whose security version the replacement token has to carry
+    public User changePassword(User principal, ChangePasswordRequest request) {
+        User user = loadUser(principal);
+
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingExecutor.call(() -> passwordEncoder.matches(request.getCurrentPassword(), user.getPassword()))) {
             throw new RuntimeException("Current password is incorrect");
         }
 
-        // Update password
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        // Update password and retire tokens issued with the old one
+        user.setPassword(passwordHashingExecutor.call(() -> passwordEncoder.encode(request.getNewPassword())));
+        user.setSecurityVersion((user.getSecurityVersion() != null ? user.getSecurityVersion() : 0) + 1);
+        User updatedUser = userRepository.save(user);
+        principalCache.evictAfterCommit(user.getId());
+        tokenRevocationService.revokeAllTokens(user.getId());
+        return updatedUser;
+    }
+
+    private User loadUser(User principal) {
+        return userRepository.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
     }
 }
 
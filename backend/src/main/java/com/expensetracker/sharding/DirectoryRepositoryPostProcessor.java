@@ -0,0 +1,62 @@
+package com.expensetracker.sharding;
+
+import com.expensetracker.repository.DirectoryRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Pins repositories of global tables (users, leases, revocations, resource versions) to the
+ * directory shard. A call made while the thread works against another shard runs in its own
+ * transaction on the directory, since a transaction cannot change shards once it has a connection.
+ */
+@Component
+public class DirectoryRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    private volatile TransactionTemplate directoryTemplate;
+
+    public DirectoryRepositoryPostProcessor(ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DirectoryRepository)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            if (ShardContext.current() == ShardContext.DIRECTORY) {
+                return invocation.proceed();
+            }
+            return ShardContext.call(ShardContext.DIRECTORY, () -> directoryTemplate().execute(status -> {
+                try {
+                    return invocation.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            }));
+        });
+        return proxyFactory.getProxy();
+    }
+
+    private TransactionTemplate directoryTemplate() {
+        if (directoryTemplate == null) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager.getObject());
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            directoryTemplate = template;
+        }
+        return directoryTemplate;
+    }
+}
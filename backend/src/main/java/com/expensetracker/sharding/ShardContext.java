@@ -0,0 +1,58 @@
+package com.expensetracker.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works against. Connections are fetched lazily, so whatever shard is
+ * current when a transaction first touches the database is the one it runs on for its whole length.
+ * Threads without a shard use the directory, shard 0, which also holds the global tables.
+ */
+public final class ShardContext {
+
+    public static final int DIRECTORY = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : DIRECTORY;
+    }
+
+    /**
+     * Switches the thread to the given shard and returns what to pass to {@link #restore}.
+     */
+    public static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = enter(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        Integer previous = enter(shard);
+        try {
+            work.run();
+        } finally {
+            restore(previous);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.expensetracker.sharding;
+
+import com.expensetracker.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Runs an authenticated request against its user's shard. Anonymous requests (login, register)
+ * stay on the directory.
+ */
+@Component
+public class ShardContextFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Integer previous = ShardContext.enter(shardResolver.shardFor(((User) authentication.getPrincipal()).getId()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+}
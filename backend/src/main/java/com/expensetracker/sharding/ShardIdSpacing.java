@@ -0,0 +1,103 @@
+package com.expensetracker.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps generated ids disjoint across shards: shard {@code s} hands out ids congruent to
+ * {@code s + 1} modulo {@code sharding.max-shards}. The step is fixed rather than the current shard
+ * count, so adding a shard never moves an existing shard onto ids another one already used.
+ *
+ * On MySQL the pools set the session's {@code auto_increment_increment} and
+ * {@code auto_increment_offset} (see {@link ShardingDataSourceConfig}) and this checks they took
+ * effect; on H2 every identity column is given the step and restarted above its current maximum.
+ * Any other database fails the startup, as nothing there would keep the ids apart.
+ */
+@Component
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardIdSpacing {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardIdSpacing.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private ShardingProperties properties;
+
+    // After ShardSchemaInitializer has created the tables of the other shards
+    @EventListener(ContextRefreshedEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void apply() {
+        for (int shard : shardResolver.shards()) {
+            int s = shard;
+            ShardContext.run(shard, () -> {
+                String database = databaseName();
+                if (database.startsWith("MySQL")) {
+                    verifyMySql(s);
+                } else if (database.startsWith("H2")) {
+                    applyH2(s);
+                } else {
+                    throw new IllegalStateException("Sharding needs MySQL or H2 to keep ids disjoint across shards, " +
+                            "shard " + s + " is " + database);
+                }
+            });
+        }
+        logger.info("Ids are spaced by {} across {} shards", properties.getMaxShards(), shardResolver.shardCount());
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+    }
+
+    private void verifyMySql(int shard) {
+        Map<String, Object> session = jdbcTemplate.queryForMap(
+                "SELECT @@session.auto_increment_increment AS step, @@session.auto_increment_offset AS first_id");
+        long step = ((Number) session.get("step")).longValue();
+        long offset = ((Number) session.get("first_id")).longValue();
+        if (step != properties.getMaxShards() || offset != shard + 1) {
+            throw new IllegalStateException("Shard " + shard + " hands out ids with auto_increment_increment=" + step +
+                    " and auto_increment_offset=" + offset + ", expected " + properties.getMaxShards() + " and " + (shard + 1));
+        }
+    }
+
+    private void applyH2(int shard) {
+        int step = properties.getMaxShards();
+        List<Map<String, Object>> columns = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME, COLUMN_NAME, IDENTITY_INCREMENT FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND IS_IDENTITY = 'YES'");
+        for (Map<String, Object> column : columns) {
+            if (((Number) column.get("IDENTITY_INCREMENT")).longValue() == step) {
+                continue;
+            }
+            String table = (String) column.get("TABLE_NAME");
+            String id = (String) column.get("COLUMN_NAME");
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(\"" + id + "\") FROM \"" + table + "\"", Long.class);
+            jdbcTemplate.execute("ALTER TABLE \"" + table + "\" ALTER COLUMN \"" + id + "\" SET INCREMENT BY " + step +
+                    " RESTART WITH " + nextId(max != null ? max : 0, shard, step));
+        }
+    }
+
+    // Smallest id above max that belongs to the shard
+    static long nextId(long max, int shard, int step) {
+        long offset = shard + 1;
+        return max < offset ? offset : offset + ((max - offset) / step + 1) * step;
+    }
+}
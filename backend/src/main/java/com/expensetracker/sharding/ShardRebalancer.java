@@ -0,0 +1,149 @@
+package com.expensetracker.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Moves users to the shard the jump hash gives them for {@code sharding.rebalance.to-count} shards.
+ *
+ * Run it as a one-off process while the application servers are stopped, with every shard already
+ * listed under {@code sharding.shards} and {@code sharding.placement-count} still at the old count:
+ *
+ * <pre>java -jar expense-tracker.war --spring.main.web-application-type=none --sharding.rebalance.to-count=4</pre>
+ *
+ * Rows keep their ids (they are unique across shards). Each user is copied in one transaction on the
+ * target, after clearing anything a failed earlier run left there, and only then deleted from the
+ * source, so the tool can be re-run until it reports nothing left to move. Afterwards set
+ * {@code sharding.placement-count} to the new count and start the servers again.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sharding.rebalance.to-count")
+public class ShardRebalancer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    // Copy order; parents come before the rows that reference them
+    private static final Map<String, String> USER_ROWS = new LinkedHashMap<>();
+
+    static {
+        USER_ROWS.put("categories", "user_id = ?");
+        USER_ROWS.put("accounts", "user_id = ?");
+        USER_ROWS.put("recurring_transactions", "user_id = ?");
+        USER_ROWS.put("budgets", "user_id = ?");
+        USER_ROWS.put("transactions", "user_id = ?");
+        USER_ROWS.put("transactions_archive", "user_id = ?");
+        USER_ROWS.put("recurring_occurrences",
+                "recurring_transaction_id IN (SELECT id FROM recurring_transactions WHERE user_id = ?)");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${sharding.rebalance.to-count}")
+    private int toCount;
+
+    @Override
+    public void run(String... args) {
+        rebalance(toCount);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    /**
+     * Moves every user whose shard differs between the current placement count and toCount, and
+     * returns how many were moved.
+     */
+    public int rebalance(int toCount) {
+        int fromCount = shardResolver.placementCount();
+        if (toCount < 1 || toCount > shardResolver.shardCount()) {
+            throw new IllegalStateException("sharding.rebalance.to-count must be between 1 and "
+                    + shardResolver.shardCount() + ", the number of configured shards");
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> userIds = ShardContext.call(ShardContext.DIRECTORY,
+                () -> jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class));
+
+        int moved = 0;
+        for (Long userId : userIds) {
+            int from = ShardResolver.shardFor(userId, fromCount);
+            int to = ShardResolver.shardFor(userId, toCount);
+            if (from == to) {
+                continue;
+            }
+
+            Map<String, List<Map<String, Object>>> rows = ShardContext.call(from, () -> read(userId));
+            ShardContext.run(to, () -> transactionTemplate.executeWithoutResult(status -> {
+                delete(userId);
+                rows.forEach(this::insert);
+            }));
+            ShardContext.run(from, () -> transactionTemplate.executeWithoutResult(status -> delete(userId)));
+            moved++;
+            logger.info("Moved user {} from shard {} to shard {}", userId, from, to);
+        }
+        logger.info("Rebalanced {} of {} users from {} to {} shards; set sharding.placement-count={}",
+                moved, userIds.size(), fromCount, toCount, toCount);
+        return moved;
+    }
+
+    private Map<String, List<Map<String, Object>>> read(Long userId) {
+        Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        USER_ROWS.forEach((table, filter) ->
+                rows.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE " + filter, userId)));
+        return rows;
+    }
+
+    private void delete(Long userId) {
+        List<String> tables = new ArrayList<>(USER_ROWS.keySet());
+        for (int i = tables.size() - 1; i >= 0; i--) {
+            String table = tables.get(i);
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + USER_ROWS.get(table), userId);
+        }
+    }
+
+    private void insert(String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        StringJoiner names = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        for (String column : columns) {
+            names.add(column);
+            values.add("?");
+        }
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            batch.add(columns.stream().map(row::get).toArray());
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + names + ") VALUES (" + values + ")", batch);
+    }
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.sharding;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Places users on shards with a jump consistent hash of their id: placement needs no lookup table,
+ * and growing from N to M shards only moves the (M - N) / M of users whose new shard is one of the
+ * added ones (see {@link ShardRebalancer}). Without sharding there is a single shard, the directory.
+ */
+@Component
+public class ShardResolver {
+
+    @Autowired
+    private ShardingProperties properties;
+
+    public int shardCount() {
+        return properties.isEnabled() ? 1 + properties.getShards().size() : 1;
+    }
+
+    public int placementCount() {
+        int placement = properties.getPlacementCount();
+        return placement > 0 ? Math.min(placement, shardCount()) : shardCount();
+    }
+
+    public List<Integer> shards() {
+        return IntStream.range(0, shardCount()).boxed().collect(Collectors.toList());
+    }
+
+    public int shardFor(Long userId) {
+        return shardFor(userId, placementCount());
+    }
+
+    public static int shardFor(Long userId, int shards) {
+        return userId == null || shards <= 1 ? ShardContext.DIRECTORY : jumpHash(userId, shards);
+    }
+
+    // Lamping & Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm"
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the thread's current shard. Like {@code ReadWriteRoutingDataSource} it
+ * must sit behind a {@code LazyConnectionDataSourceProxy} so the shard is picked at first use.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
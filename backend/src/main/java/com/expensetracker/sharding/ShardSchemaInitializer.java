@@ -0,0 +1,66 @@
+package com.expensetracker.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+
+/**
+ * Applies {@code ddl-auto=update} to every shard. Hibernate only updates the schema through the
+ * connection it gets at startup, which is shard 0's; this integrator keeps the mapping metadata and
+ * runs the same schema update against the other shards once the context is up.
+ */
+@Component
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer implements Integrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Value("${spring.jpa.hibernate.ddl-auto:none}")
+    private String ddlAuto;
+
+    private volatile Metadata metadata;
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        metadata = null;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Order(0)
+    public void updateShards() {
+        if (metadata == null || !"update".equalsIgnoreCase(ddlAuto)) {
+            return;
+        }
+        for (int shard : shardResolver.shards()) {
+            if (shard == ShardContext.DIRECTORY) {
+                continue;
+            }
+            ShardContext.run(shard, () -> new SchemaUpdate().setHaltOnError(false)
+                    .execute(EnumSet.of(TargetType.DATABASE), metadata));
+            logger.info("Updated the schema of shard {}", shard);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.expensetracker.sharding;
+
+import com.expensetracker.config.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One connection pool per shard behind a {@link ShardRoutingDataSource}. Shard 0 uses
+ * {@code spring.datasource.*} (and {@code spring.datasource.replica.url} if set); the other shards
+ * come from {@code sharding.shards[i]}, with the username and password defaulting to the primary's.
+ *
+ * Every shard hands out ids from its own residue class modulo {@code sharding.max-shards}, so ids
+ * stay unique across shards, also when shards are added. That keeps the second-level cache and the
+ * due queue keyed by id correct and lets the rebalancer move rows without renumbering them. On
+ * MySQL the pools set {@code auto_increment_offset = shard + 1} and
+ * {@code auto_increment_increment = max-shards}; {@link ShardIdSpacing} checks them at startup and
+ * handles H2.
+ *
+ * The pools are not beans, so Spring Boot does not bind them to the meter registry; each pool
+ * reports its {@code hikaricp.*} metrics itself, tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ShardingDataSourceConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ShardingProperties sharding,
+                                 @Value("${spring.datasource.replica.url:}") String replicaUrl) {
+        int shardCount = 1 + sharding.getShards().size();
+        if (shardCount > sharding.getMaxShards()) {
+            throw new IllegalStateException(shardCount + " shards configured, more than sharding.max-shards="
+                    + sharding.getMaxShards());
+        }
+        int idStep = sharding.getMaxShards();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ShardContext.DIRECTORY, shardDataSource(properties, ShardContext.DIRECTORY, idStep,
+                properties.getUrl(), properties.getUsername(), properties.getPassword(), replicaUrl));
+        for (int shard = 1; shard < shardCount; shard++) {
+            ShardingProperties.Shard config = sharding.getShards().get(shard - 1);
+            String username = config.getUsername() != null ? config.getUsername() : properties.getUsername();
+            String password = config.getPassword() != null ? config.getPassword() : properties.getPassword();
+            targets.put(shard, shardDataSource(properties, shard, idStep,
+                    config.getUrl(), username, password, config.getReplicaUrl()));
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(ShardContext.DIRECTORY));
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegratorCustomizer(ShardSchemaInitializer shardSchemaInitializer) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> Collections.singletonList(shardSchemaInitializer));
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private DataSource shardDataSource(DataSourceProperties properties, int shard, int idStep,
+                                       String url, String username, String password, String replicaUrl) {
+        HikariDataSource primary = pool(properties, "shard-" + shard, shard, idStep, url, username, password);
+        if (replicaUrl == null || replicaUrl.isEmpty()) {
+            return primary;
+        }
+
+        HikariDataSource replica = pool(properties, "shard-" + shard + "-replica", shard, idStep, replicaUrl, username, password);
+        replica.setReadOnly(true);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+        targets.put(ReadWriteRoutingDataSource.REPLICA, replica);
+        ReadWriteRoutingDataSource readWrite = new ReadWriteRoutingDataSource();
+        readWrite.setTargetDataSources(targets);
+        readWrite.setDefaultTargetDataSource(primary);
+        readWrite.afterPropertiesSet();
+        return readWrite;
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, String name, int shard, int idStep,
+                                  String url, String username, String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        if (url.startsWith("jdbc:mysql:")) {
+            dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + idStep +
+                    ", auto_increment_offset = " + (shard + 1));
+        }
+        pools.add(dataSource);
+        return dataSource;
+    }
+}
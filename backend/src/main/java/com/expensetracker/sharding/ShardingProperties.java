@@ -0,0 +1,99 @@
+package com.expensetracker.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code sharding.*}: shard 0 is the regular {@code spring.datasource}, {@code sharding.shards[i]}
+ * are the datasources of shards 1..n.
+ */
+@ConfigurationProperties("sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    // Shards users are placed on; lower than the shard count while new shards are being filled
+    private int placementCount;
+
+    // Step between the ids of one shard; fixed for the life of the data, and at least the shard count
+    private int maxShards = 16;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPlacementCount() {
+        return placementCount;
+    }
+
+    public void setPlacementCount(int placementCount) {
+        this.placementCount = placementCount;
+    }
+
+    public int getMaxShards() {
+        return maxShards;
+    }
+
+    public void setMaxShards(int maxShards) {
+        this.maxShards = maxShards;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String replicaUrl;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getReplicaUrl() {
+            return replicaUrl;
+        }
+
+        public void setReplicaUrl(String replicaUrl) {
+            this.replicaUrl = replicaUrl;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.expensetracker.sql;
+
+/**
+ * Thrown in place of the statement that takes a request over its budget when
+ * {@code sql-budget.fail-fast} is on, so N+1 regressions fail loudly in test and load runs.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String name, int budget) {
+        super(name + " exceeded its budget of " + budget + " SQL statements");
+    }
+}
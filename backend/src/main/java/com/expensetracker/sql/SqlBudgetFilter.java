@@ -0,0 +1,177 @@
+package com.expensetracker.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements each request executes, security and asynchronous report work
+ * included, and checks the count against a per-endpoint budget so N+1 query patterns show up as
+ * soon as they are introduced.
+ *
+ * Budgets come from {@code sql-budget.rules} as comma-separated {@code pattern:maxStatements}
+ * entries; the first matching pattern wins and a request matching none is counted but unlimited.
+ * A request over its budget is logged and counted ({@code expense.sql.over_budget}); with
+ * {@code sql-budget.fail-fast=true}, meant for test and load runs, the statement that crosses the
+ * budget fails with {@link SqlBudgetExceededException} instead.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ManagedResource(objectName = "com.expensetracker:type=SqlBudgetFilter")
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql-budget.enabled:false}")
+    private boolean enabled;
+
+    @Value("${sql-budget.rules:/**:50}")
+    private String ruleSpec;
+
+    @Value("${sql-budget.fail-fast:false}")
+    private boolean failFast;
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    private final LongAdder overBudget = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        for (String entry : ruleSpec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid sql-budget rule: " + entry);
+            }
+            rules.add(new Rule(parts[0], Integer.parseInt(parts[1])));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Rule rule = findRule(path);
+        SqlStatementCounter.Scope scope = new SqlStatementCounter.Scope(
+                request.getMethod() + " " + path, rule != null ? rule.maxStatements : 0, failFast);
+
+        SqlStatementCounter.Scope previous = SqlStatementCounter.enter(scope);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.restore(previous);
+            if (request.isAsyncStarted()) {
+                // Report work finishes on another thread; check once the response is complete
+                request.getAsyncContext().addListener(new CompletionListener(scope, rule));
+            } else {
+                check(scope, rule);
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "Requests that executed more SQL statements than their budget")
+    public long getOverBudgetRequests() {
+        return overBudget.sum();
+    }
+
+    private void check(SqlStatementCounter.Scope scope, Rule rule) {
+        String pattern = rule != null ? rule.pattern : "none";
+        DistributionSummary.builder("expense.sql.statements")
+                .description("SQL statements executed per request")
+                .tags("rule", pattern)
+                .register(meterRegistry)
+                .record(scope.getStatements());
+
+        if (scope.isOverBudget()) {
+            overBudget.increment();
+            Counter.builder("expense.sql.over_budget")
+                    .description("Requests over their SQL statement budget")
+                    .tags("rule", pattern)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} executed {} SQL statements, over the budget of {} for {}",
+                    scope.getName(), scope.getStatements(), scope.getBudget(), pattern);
+        }
+    }
+
+    private Rule findRule(String path) {
+        for (Rule rule : rules) {
+            if (PATH_MATCHER.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static final class Rule {
+        private final String pattern;
+        private final int maxStatements;
+
+        private Rule(String pattern, int maxStatements) {
+            this.pattern = pattern;
+            this.maxStatements = maxStatements;
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final SqlStatementCounter.Scope scope;
+
+        private final Rule rule;
+
+        private CompletionListener(SqlStatementCounter.Scope scope, Rule rule) {
+            this.scope = scope;
+            this.rule = rule;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            check(scope, rule);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
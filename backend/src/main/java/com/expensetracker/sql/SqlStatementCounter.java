@@ -0,0 +1,96 @@
+package com.expensetracker.sql;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts the JDBC statements executed for the unit of work current on the thread (a request, see
+ * {@link SqlBudgetFilter}). The count lives in a {@link Scope} that work handed to other threads
+ * can carry along, the way {@code ReportExecutor} carries the shard. Threads without a scope are
+ * not counted.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the scope current and returns what to pass to {@link #restore}.
+     */
+    public static Scope enter(Scope scope) {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        return previous;
+    }
+
+    public static void restore(Scope previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T call(Scope scope, Supplier<T> work) {
+        Scope previous = enter(scope);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static void statementExecuted() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statementExecuted();
+        }
+    }
+
+    public static final class Scope {
+
+        private final String name;
+
+        // 0 means unlimited
+        private final int budget;
+
+        private final boolean failFast;
+
+        private final AtomicInteger statements = new AtomicInteger();
+
+        public Scope(String name, int budget, boolean failFast) {
+            this.name = name;
+            this.budget = budget;
+            this.failFast = failFast;
+        }
+
+        private void statementExecuted() {
+            int count = statements.incrementAndGet();
+            if (failFast && budget > 0 && count > budget) {
+                throw new SqlBudgetExceededException(name, budget);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public int getStatements() {
+            return statements.get();
+        }
+
+        public boolean isOverBudget() {
+            return budget > 0 && statements.get() > budget;
+        }
+    }
+}
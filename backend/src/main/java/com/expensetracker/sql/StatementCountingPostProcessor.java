@@ -0,0 +1,33 @@
+package com.expensetracker.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's datasource (the {@code dataSource} bean JPA and JdbcTemplate use, whichever
+ * configuration defines it) in a {@link StatementCountingDataSource}. The pools behind it stay
+ * unwrapped, so statements are counted once however they are routed.
+ */
+@Component
+public class StatementCountingPostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final boolean enabled;
+
+    public StatementCountingPostProcessor(@Value("${sql-budget.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource
+                && !(bean instanceof StatementCountingDataSource)) {
+            return new StatementCountingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
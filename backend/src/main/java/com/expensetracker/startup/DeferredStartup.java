@@ -0,0 +1,87 @@
+package com.expensetracker.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the non-critical startup work (seeding default categories, partition and archive table
+ * checks). Normally that happens inline, as part of starting up. With
+ * {@code startup.defer-runners=true} the tasks are held back until the application accepts
+ * traffic and then run one after the other on a background thread, so they no longer delay the
+ * deployment.
+ */
+@Component
+public class DeferredStartup {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredStartup.class);
+
+    @Autowired
+    private StartupTimings startupTimings;
+
+    @Value("${startup.defer-runners:false}")
+    private boolean deferRunners;
+
+    private final Map<String, Runnable> pending = new LinkedHashMap<>();
+
+    private boolean ready;
+
+    public void run(String name, Runnable task) {
+        if (deferRunners) {
+            synchronized (this) {
+                if (!ready) {
+                    pending.put(name, task);
+                    return;
+                }
+            }
+        }
+        timed(name, task);
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        Map<String, Runnable> tasks;
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            ready = true;
+            tasks = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> tasks.forEach(this::timed), "deferred-startup");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Running deferred startup tasks {} in the background", new ArrayList<>(tasks.keySet()));
+    }
+
+    private void timed(String name, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            if (!deferRunners) {
+                throw e;
+            }
+            logger.error("Deferred startup task {} failed", name, e);
+        } finally {
+            startupTimings.recordTask(name, (System.nanoTime() - start) / 1_000_000L);
+        }
+    }
+}
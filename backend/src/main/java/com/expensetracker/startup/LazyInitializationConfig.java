@@ -0,0 +1,31 @@
+package com.expensetracker.startup;
+
+import com.expensetracker.event.TransactionEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Beans that must exist from the start even with {@code spring.main.lazy-initialization=true}:
+ * nothing else would ever ask for them, so lazily they would silently never run. That covers
+ * beans with {@code @Scheduled} methods, {@link SmartInitializingSingleton}s (the event bus starts
+ * its consumers there) and event listeners.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                SmartInitializingSingleton.class.isAssignableFrom(beanType)
+                        || TransactionEventListener.class.isAssignableFrom(beanType)
+                        || Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
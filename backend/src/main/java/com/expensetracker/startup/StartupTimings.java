@@ -0,0 +1,153 @@
+package com.expensetracker.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Summarises how long the application took to start and where the time went. The application is
+ * launched with a {@link BufferingApplicationStartup}, which records Spring's startup steps
+ * (environment, context refresh, bean creation, ...); once the application is ready they are
+ * folded into per-phase totals plus the slowest beans, logged, and exposed over JMX together
+ * with the tasks run through {@link DeferredStartup}. A start over {@code startup.budget-ms} is logged as a warning.
+ */
+@Component
+@ManagedResource(objectName = "com.expensetracker:type=StartupTimings")
+public class StartupTimings {
+
+    // Startup steps kept in memory until the application is ready
+    public static final int STEP_CAPACITY = 20_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimings.class);
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    private static final int SLOWEST_BEANS = 10;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ApplicationStartup applicationStartup;
+
+    @Value("${startup.budget-ms:60000}")
+    private long budgetMs;
+
+    private volatile long startupMs = -1;
+
+    private volatile List<String> phases = new ArrayList<>();
+
+    private volatile List<String> slowestBeans = new ArrayList<>();
+
+    private final List<String> startupTasks = new CopyOnWriteArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void summarise() {
+        long startedAt = applicationContext.getStartupDate();
+        if (applicationStartup instanceof BufferingApplicationStartup) {
+            StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).drainBufferedTimeline();
+            startedAt = timeline.getStartTime().toEpochMilli();
+            summarise(timeline.getEvents());
+        }
+        startupMs = System.currentTimeMillis() - startedAt;
+
+        if (startupMs > budgetMs) {
+            logger.warn("Started in {} ms, over the {} ms budget; phases: {}; slowest beans: {}",
+                    startupMs, budgetMs, phases, slowestBeans);
+        } else {
+            logger.info("Started in {} ms (budget {} ms); phases: {}; slowest beans: {}",
+                    startupMs, budgetMs, phases, slowestBeans);
+        }
+    }
+
+    /**
+     * Records a startup task run through {@link DeferredStartup}, inline or deferred.
+     */
+    public void recordTask(String name, long millis) {
+        startupTasks.add(name + "=" + millis + "ms");
+    }
+
+    @ManagedAttribute(description = "Milliseconds from launch until the application was ready, -1 while starting")
+    public long getStartupMillis() {
+        return startupMs;
+    }
+
+    @ManagedAttribute(description = "Startup time budget in milliseconds")
+    public long getBudgetMillis() {
+        return budgetMs;
+    }
+
+    @ManagedAttribute(description = "Whether the last start stayed within the budget")
+    public boolean isWithinBudget() {
+        return startupMs >= 0 && startupMs <= budgetMs;
+    }
+
+    @ManagedAttribute(description = "Total milliseconds per startup step, in the order the steps began")
+    public String[] getPhases() {
+        return phases.toArray(new String[0]);
+    }
+
+    @ManagedAttribute(description = "Slowest bean creations in milliseconds, including their dependencies")
+    public String[] getSlowestBeans() {
+        return slowestBeans.toArray(new String[0]);
+    }
+
+    @ManagedAttribute(description = "Startup tasks run through DeferredStartup, in milliseconds")
+    public String[] getStartupTasks() {
+        return startupTasks.toArray(new String[0]);
+    }
+
+    private void summarise(List<StartupTimeline.TimelineEvent> events) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        List<StartupTimeline.TimelineEvent> beans = new ArrayList<>();
+        events.stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime))
+                .forEach(event -> {
+                    String name = event.getStartupStep().getName();
+                    if (BEAN_STEP.equals(name)) {
+                        beans.add(event);
+                    } else {
+                        totals.merge(name, event.getDuration().toMillis(), Long::sum);
+                    }
+                });
+
+        List<String> phaseLines = new ArrayList<>();
+        totals.forEach((name, millis) -> phaseLines.add(name + "=" + millis + "ms"));
+        phaseLines.add(BEAN_STEP + "=" + beans.size() + " beans");
+        phases = phaseLines;
+
+        List<String> beanLines = new ArrayList<>();
+        beans.stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(event -> beanLines.add(beanName(event.getStartupStep()) + "=" + event.getDuration().toMillis() + "ms"));
+        slowestBeans = beanLines;
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,109 @@
+package com.expensetracker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Calls the API through MockMvc as freshly registered users, finishing asynchronous (report pool)
+ * requests the way the servlet container would.
+ */
+public class TestApi {
+
+    public static final String PASSWORD = "password123";
+
+    private final MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper;
+
+    public TestApi(MockMvc mockMvc, ObjectMapper objectMapper) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers a user named prefix plus a unique suffix, so tests sharing a context do not clash.
+     */
+    public Session register(String prefix) throws Exception {
+        String username = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Map<String, Object> body = new HashMap<>();
+        body.put("username", username);
+        body.put("email", username + "@example.com");
+        body.put("password", PASSWORD);
+        JsonNode response = send(null, MockMvcRequestBuilders.post("/auth/register"), body);
+        return new Session(response.get("id").asLong(), username, response.get("token").asText());
+    }
+
+    public JsonNode get(Session session, String path) throws Exception {
+        return send(session, MockMvcRequestBuilders.get(path), null);
+    }
+
+    public JsonNode post(Session session, String path, Object body) throws Exception {
+        return send(session, MockMvcRequestBuilders.post(path), body);
+    }
+
+    /**
+     * Performs the request and, if the controller went asynchronous, its dispatch once the result is in.
+     */
+    public MvcResult perform(Session session, MockHttpServletRequestBuilder request, Object body) throws Exception {
+        if (session != null) {
+            request.header("Authorization", "Bearer " + session.getToken());
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+
+    /**
+     * Performs the request and returns the JSON body, failing unless the response is 200.
+     */
+    public JsonNode send(Session session, MockHttpServletRequestBuilder request, Object body) throws Exception {
+        MvcResult result = perform(session, request, body);
+        String content = result.getResponse().getContentAsString();
+        assertEquals(200, result.getResponse().getStatus(), content);
+        return content.isEmpty() ? null : objectMapper.readTree(content);
+    }
+
+    public static final class Session {
+
+        private final long userId;
+
+        private final String username;
+
+        private final String token;
+
+        private Session(long userId, String username, String token) {
+            this.userId = userId;
+            this.username = username;
+            this.token = token;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+}
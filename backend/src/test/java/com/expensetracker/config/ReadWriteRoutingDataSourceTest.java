@@ -0,0 +1,88 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wires a primary and a replica the way {@link ReadReplicaDataSourceConfig} does, each its own
+ * in-memory H2 database holding a row that names it, and checks which one a transaction reads from.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+
+    private HikariDataSource replica;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary");
+        replica = pool("replica");
+
+        DataSource dataSource = new ReadReplicaDataSourceConfig().dataSource(primary, replica);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void close() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> served()));
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertEquals("primary", readWrite.execute(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            return served();
+        }));
+        assertEquals(1, writes(primary));
+        assertEquals(0, writes(replica));
+    }
+
+    @Test
+    void workOutsideATransactionUsesThePrimary() {
+        assertEquals("primary", served());
+    }
+
+    private String served() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static int writes(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT writes FROM node", Integer.class);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20), writes INT)");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return pool;
+    }
+}
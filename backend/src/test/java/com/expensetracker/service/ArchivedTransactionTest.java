@@ -0,0 +1,117 @@
+package com.expensetracker.service;
+
+import com.expensetracker.TestApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArchivedTransactionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestApi api;
+
+    private TestApi.Session session;
+
+    private long accountId;
+
+    private long categoryId;
+
+    private long transactionId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new TestApi(mockMvc, objectMapper);
+        session = api.register("archive");
+        accountId = api.post(session, "/accounts", Map.of("name", "Checking", "type", "BANK", "balance", 1000))
+                .get("id").asLong();
+        categoryId = api.post(session, "/categories", Map.of("name", "Old", "color", "#FF6B6B"))
+                .get("id").asLong();
+        transactionId = api.post(session, "/transactions", transaction(40, "Closed year")).get("id").asLong();
+
+        // What the archival job does for a closed year of an inactive user
+        jdbcTemplate.update("INSERT INTO transactions_archive (id, amount, description, type, transaction_date, " +
+                "notes, created_at, updated_at, user_id, category_id, account_id, recurring_transaction_id, " +
+                "occurrence_date, archived_at) SELECT id, amount, description, type, transaction_date, notes, " +
+                "created_at, updated_at, user_id, category_id, account_id, recurring_transaction_id, " +
+                "occurrence_date, CURRENT_TIMESTAMP FROM transactions WHERE id = ?", transactionId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id = ?", transactionId);
+    }
+
+    @Test
+    void archivedTransactionsCanBeReadById() throws Exception {
+        assertEquals("Closed year", api.get(session, "/transactions/" + transactionId).get("description").asText());
+    }
+
+    @Test
+    void changingAnArchivedTransactionMovesItBack() throws Exception {
+        api.send(session, MockMvcRequestBuilders.put("/transactions/" + transactionId), transaction(25, "Corrected"));
+
+        assertEquals(0, rows("transactions_archive"));
+        assertEquals(1, rows("transactions"));
+        assertEquals(0, new BigDecimal("975").compareTo(balance()));
+    }
+
+    @Test
+    void deletingAnArchivedTransactionRestoresTheBalance() throws Exception {
+        api.send(session, MockMvcRequestBuilders.delete("/transactions/" + transactionId), null);
+
+        assertEquals(0, rows("transactions_archive"));
+        assertEquals(0, rows("transactions"));
+        assertEquals(0, new BigDecimal("1000").compareTo(balance()));
+    }
+
+    @Test
+    void otherUsersCannotReachArchivedTransactions() throws Exception {
+        TestApi.Session other = api.register("archive-other");
+
+        // "Transaction not found" has no handler, so MockMvc rethrows it
+        assertThrows(Exception.class, () ->
+                api.perform(other, MockMvcRequestBuilders.delete("/transactions/" + transactionId), null));
+        assertEquals(1, rows("transactions_archive"));
+    }
+
+    private Map<String, Object> transaction(int amount, String description) {
+        Map<String, Object> transaction = new HashMap<>();
+        transaction.put("amount", amount);
+        transaction.put("description", description);
+        transaction.put("type", "EXPENSE");
+        transaction.put("transactionDate", LocalDate.now().minusYears(3).toString());
+        transaction.put("categoryId", categoryId);
+        transaction.put("accountId", accountId);
+        return transaction;
+    }
+
+    private int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Integer.class, transactionId);
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
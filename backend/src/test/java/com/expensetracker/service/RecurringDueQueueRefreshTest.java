@@ -0,0 +1,97 @@
+package com.expensetracker.service;
+
+import com.expensetracker.TestApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rules written straight to the table stand in for rules created or paused on another instance,
+ * which this node's queue only learns about from the feed of updated rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecurringDueQueueRefreshTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecurringTransactionScheduler scheduler;
+
+    private TestApi.Session session;
+
+    private long accountId;
+
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestApi api = new TestApi(mockMvc, objectMapper);
+        session = api.register("queue");
+        accountId = api.post(session, "/accounts", Map.of("name", "Checking", "type", "BANK", "balance", 1000))
+                .get("id").asLong();
+        categoryId = api.post(session, "/categories", Map.of("name", "Gym", "color", "#96CEB4"))
+                .get("id").asLong();
+    }
+
+    @Test
+    void rulesCreatedElsewhereFireAfterARefresh() {
+        long id = insertRule();
+
+        scheduler.refreshDueQueue();
+        scheduler.fireDueFromQueue();
+
+        assertEquals(1, postings(id));
+    }
+
+    @Test
+    void rulesPausedElsewhereDoNotFire() {
+        long id = insertRule();
+        scheduler.refreshDueQueue();
+
+        jdbcTemplate.update("UPDATE recurring_transactions SET is_active = FALSE, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), id);
+        scheduler.refreshDueQueue();
+        scheduler.fireDueFromQueue();
+
+        assertEquals(0, postings(id));
+    }
+
+    private long insertRule() {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO recurring_transactions (description, amount, type, recurrence_type, " +
+                        "start_date, next_due_date, is_active, created_at, updated_at, user_id, category_id, account_id) " +
+                        "VALUES ('Gym', 30, 'EXPENSE', 'MONTHLY', ?, ?, TRUE, ?, ?, ?, ?, ?)",
+                Date.valueOf(today), Date.valueOf(today), now, now, session.getUserId(), categoryId, accountId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM recurring_transactions WHERE user_id = ?",
+                Long.class, session.getUserId());
+    }
+
+    private int postings(long recurringId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE recurring_transaction_id = ?",
+                Integer.class, recurringId);
+    }
+}
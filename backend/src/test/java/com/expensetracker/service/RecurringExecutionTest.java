@@ -0,0 +1,146 @@
+package com.expensetracker.service;
+
+import com.expensetracker.TestApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecurringExecutionTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestApi api;
+
+    private TestApi.Session session;
+
+    private long accountId;
+
+    private long recurringId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new TestApi(mockMvc, objectMapper);
+        session = api.register("recurring");
+        accountId = api.post(session, "/accounts", Map.of("name", "Checking", "type", "BANK", "balance", 1000))
+                .get("id").asLong();
+        long categoryId = api.post(session, "/categories", Map.of("name", "Rent", "color", "#FF6B6B"))
+                .get("id").asLong();
+
+        // Started yesterday, so the next occurrence is due today
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("description", "Daily rent");
+        rule.put("amount", 10);
+        rule.put("type", "EXPENSE");
+        rule.put("recurrenceType", "DAILY");
+        rule.put("startDate", LocalDate.now().minusDays(1).toString());
+        rule.put("categoryId", categoryId);
+        rule.put("accountId", accountId);
+        recurringId = api.post(session, "/recurring-transactions", rule).get("id").asLong();
+    }
+
+    @Test
+    void parallelExecutionsPostTheOccurrenceOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            Callable<Integer> execute = () -> {
+                start.await();
+                return execute();
+            };
+            for (int i = 0; i < CALLERS; i++) {
+                statuses.add(executor.submit(execute));
+            }
+            start.countDown();
+
+            int posted = 0;
+            for (Future<Integer> status : statuses) {
+                int code = status.get();
+                if (code == 200) {
+                    posted++;
+                } else {
+                    assertEquals(409, code);
+                }
+            }
+            assertEquals(1, posted);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, postings());
+        assertEquals(0, new BigDecimal("990").compareTo(balance()));
+    }
+
+    @Test
+    void repeatedExecutionDoesNotPostTheNextOccurrence() throws Exception {
+        assertEquals(200, execute());
+        assertEquals(409, execute());
+
+        assertEquals(1, postings());
+        assertEquals(LocalDate.now().plusDays(1).toString(), nextDueDate());
+    }
+
+    @Test
+    void executionWithoutADatePostsAheadOfSchedule() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            api.send(session, MockMvcRequestBuilders.post("/recurring-transactions/" + recurringId + "/execute"), null);
+        }
+
+        assertEquals(2, postings());
+        assertEquals(LocalDate.now().plusDays(2).toString(), nextDueDate());
+    }
+
+    // Names today's occurrence, as the frontend sends the due date it showed
+    private int execute() throws Exception {
+        MockHttpServletRequestBuilder execute = MockMvcRequestBuilders.post("/recurring-transactions/" + recurringId + "/execute")
+                .param("occurrenceDate", LocalDate.now().toString());
+        return api.perform(session, execute, null).getResponse().getStatus();
+    }
+
+    private String nextDueDate() throws Exception {
+        return api.get(session, "/recurring-transactions/" + recurringId).get("nextDueDate").asText();
+    }
+
+    private int postings() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE recurring_transaction_id = ?",
+                Integer.class, recurringId);
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardResolverTest {
+
+    private static final int USERS = 10_000;
+
+    @Test
+    void addingAShardOnlyMovesUsersOntoIt() {
+        for (int shards = 1; shards < 8; shards++) {
+            int moved = 0;
+            for (long userId = 1; userId <= USERS; userId++) {
+                int before = ShardResolver.shardFor(userId, shards);
+                int after = ShardResolver.shardFor(userId, shards + 1);
+                if (before != after) {
+                    assertEquals(shards, after, "user " + userId + " moved between existing shards");
+                    moved++;
+                }
+            }
+            // About one user in (shards + 1) moves; allow generous slack for the hash's variance
+            int expected = USERS / (shards + 1);
+            assertTrue(Math.abs(moved - expected) < expected / 5, moved + " of " + USERS + " users moved to shard " + shards);
+        }
+    }
+
+    @Test
+    void usersAreSpreadEvenly() {
+        int shards = 4;
+        int[] counts = new int[shards];
+        for (long userId = 1; userId <= USERS; userId++) {
+            counts[ShardResolver.shardFor(userId, shards)]++;
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            assertTrue(Math.abs(counts[shard] - USERS / shards) < USERS / shards / 5,
+                    counts[shard] + " users on shard " + shard);
+        }
+    }
+
+    @Test
+    void withoutShardsEverythingStaysOnTheDirectory() {
+        assertEquals(ShardContext.DIRECTORY, ShardResolver.shardFor(null, 3));
+        assertEquals(ShardContext.DIRECTORY, ShardResolver.shardFor(42L, 1));
+    }
+}
@@ -0,0 +1,207 @@
+package com.expensetracker.sharding;
+
+import com.expensetracker.TestApi;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Three shards on separate in-memory H2 databases, with users placed on the first two so the
+ * rebalancer has somewhere to move them.
+ */
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.placement-count=2",
+        "spring.datasource.url=jdbc:h2:mem:sharding-0;DB_CLOSE_DELAY=-1",
+        "sharding.shards[0].url=jdbc:h2:mem:sharding-1;DB_CLOSE_DELAY=-1",
+        "sharding.shards[1].url=jdbc:h2:mem:sharding-2;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    private static final String[] USER_TABLES = {"accounts", "categories", "transactions"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private ShardingProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TestApi api;
+
+    @BeforeEach
+    void setUp() {
+        api = new TestApi(mockMvc, objectMapper);
+    }
+
+    @AfterEach
+    void restorePlacement() {
+        properties.setPlacementCount(2);
+    }
+
+    @Test
+    void requestsRunOnTheUsersShardWithIdsOfThatShard() throws Exception {
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 50 && used.size() < 2; i++) {
+            TestApi.Session session = api.register("routing");
+            long accountId = createAccount(session);
+            int shard = shardResolver.shardFor(session.getUserId());
+            used.add(shard);
+
+            for (int s : shardResolver.shards()) {
+                assertEquals(s == shard ? 1 : 0, count(s, "SELECT COUNT(*) FROM accounts WHERE id = ?", accountId),
+                        "account " + accountId + " on shard " + s);
+            }
+            assertEquals(shard + 1, accountId % properties.getMaxShards());
+        }
+        assertEquals(Set.of(0, 1), used);
+    }
+
+    @Test
+    void directoryRepositoriesIgnoreTheThreadsShard() throws Exception {
+        TestApi.Session session = api.register("pinned");
+        int other = 2;
+
+        User user = ShardContext.call(other, () -> userRepository.findByUsername(session.getUsername()).orElse(null));
+        assertNotNull(user);
+
+        // Inside a transaction that already holds a connection to another shard
+        User inTransaction = ShardContext.call(other, () -> new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Integer.class);
+            return userRepository.findByUsername(session.getUsername()).orElse(null);
+        }));
+        assertNotNull(inTransaction);
+
+        assertEquals(0, count(other, "SELECT COUNT(*) FROM users WHERE username = ?", session.getUsername()));
+    }
+
+    @Test
+    void defaultCategoriesAreCopiedToEveryShard() {
+        List<Map<String, Object>> directory = defaultCategories(ShardContext.DIRECTORY);
+        assertFalse(directory.isEmpty());
+        for (int shard : shardResolver.shards()) {
+            assertEquals(directory, defaultCategories(shard), "default categories on shard " + shard);
+        }
+    }
+
+    @Test
+    void rebalancerMovesUsersToNewShardsAndBack() throws Exception {
+        List<TestApi.Session> sessions = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            TestApi.Session session = api.register("rebalance");
+            long accountId = createAccount(session);
+            long categoryId = api.post(session, "/categories", Map.of("name", "Moving", "color", "#FF6B6B"))
+                    .get("id").asLong();
+            Map<String, Object> transaction = new HashMap<>();
+            transaction.put("amount", 12.50);
+            transaction.put("description", "Moved with its user");
+            transaction.put("type", "EXPENSE");
+            transaction.put("transactionDate", LocalDate.now().toString());
+            transaction.put("categoryId", categoryId);
+            transaction.put("accountId", accountId);
+            api.post(session, "/transactions", transaction);
+            sessions.add(session);
+        }
+        Map<Long, Map<String, List<Map<String, Object>>>> before = snapshot(sessions, 2);
+
+        ShardRebalancer rebalancer = new ShardRebalancer();
+        ReflectionTestUtils.setField(rebalancer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(rebalancer, "shardResolver", shardResolver);
+        ReflectionTestUtils.setField(rebalancer, "transactionManager", transactionManager);
+
+        rebalancer.rebalance(3);
+        properties.setPlacementCount(3);
+        assertTrue(sessions.stream().anyMatch(s -> shardResolver.shardFor(s.getUserId()) == 2),
+                "some users should move to the new shard");
+        assertEquals(before, snapshot(sessions, 3));
+        assertLocatedOnlyOnTheirShard(sessions);
+
+        rebalancer.rebalance(2);
+        properties.setPlacementCount(2);
+        assertEquals(before, snapshot(sessions, 2));
+        assertLocatedOnlyOnTheirShard(sessions);
+    }
+
+    private long createAccount(TestApi.Session session) throws Exception {
+        return api.post(session, "/accounts", Map.of("name", "Checking", "type", "BANK", "balance", 1000))
+                .get("id").asLong();
+    }
+
+    private Map<Long, Map<String, List<Map<String, Object>>>> snapshot(List<TestApi.Session> sessions, int placement) {
+        Map<Long, Map<String, List<Map<String, Object>>>> rows = new HashMap<>();
+        for (TestApi.Session session : sessions) {
+            int shard = ShardResolver.shardFor(session.getUserId(), placement);
+            Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+            for (String table : USER_TABLES) {
+                tables.put(table, ShardContext.call(shard, () -> jdbcTemplate.queryForList(
+                        "SELECT * FROM " + table + " WHERE user_id = ? ORDER BY id", session.getUserId())));
+            }
+            rows.put(session.getUserId(), tables);
+        }
+        return rows;
+    }
+
+    private void assertLocatedOnlyOnTheirShard(List<TestApi.Session> sessions) {
+        for (TestApi.Session session : sessions) {
+            int shard = shardResolver.shardFor(session.getUserId());
+            for (int s : shardResolver.shards()) {
+                for (String table : USER_TABLES) {
+                    int rows = count(s, "SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", session.getUserId());
+                    assertEquals(s == shard, rows > 0, table + " of user " + session.getUserId() + " on shard " + s);
+                }
+            }
+        }
+    }
+
+    private List<Map<String, Object>> defaultCategories(int shard) {
+        return ShardContext.call(shard, () -> jdbcTemplate.queryForList(
+                "SELECT id, name, color FROM categories WHERE is_default = TRUE ORDER BY id"));
+    }
+
+    private int count(int shard, String sql, Object... args) {
+        return ShardContext.call(shard, () -> jdbcTemplate.queryForObject(sql, Integer.class, args));
+    }
+}
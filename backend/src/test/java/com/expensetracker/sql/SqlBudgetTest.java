@@ -0,0 +1,210 @@
+package com.expensetracker.sql;
+
+import com.expensetracker.TestApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls every endpoint for a user with enough data that a query per row would go over the
+ * endpoint's budget in {@code sql-budget.rules}. Fail-fast turns an over-budget request into an
+ * error, so a new N+1 pattern fails the build instead of only being logged. The second-level cache
+ * is emptied after seeding, as seeding would otherwise leave every category cached.
+ */
+@SpringBootTest(properties = "sql-budget.fail-fast=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlBudgetTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlBudgetFilter sqlBudgetFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestApi api;
+
+    private TestApi.Session session;
+
+    private final List<Long> categoryIds = new ArrayList<>();
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    private long recurringId;
+
+    private long transactionId;
+
+    private long budgetId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        api = new TestApi(mockMvc, objectMapper);
+        session = api.register("budget");
+        LocalDate today = LocalDate.now();
+
+        for (int i = 0; i < 4; i++) {
+            categoryIds.add(api.post(session, "/categories", Map.of("name", "Category " + i, "color", "#4ECDC4"))
+                    .get("id").asLong());
+            accountIds.add(api.post(session, "/accounts", Map.of("name", "Account " + i, "type", "BANK", "balance", 5000))
+                    .get("id").asLong());
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Map<String, Object> transaction = new HashMap<>();
+            transaction.put("amount", 5 + i);
+            transaction.put("description", "Purchase " + i);
+            transaction.put("type", i % 5 == 0 ? "INCOME" : "EXPENSE");
+            transaction.put("transactionDate", today.minusDays(i * 7L).toString());
+            transaction.put("categoryId", categoryIds.get(i % categoryIds.size()));
+            transaction.put("accountId", accountIds.get(i % accountIds.size()));
+            transactionId = api.post(session, "/transactions", transaction).get("id").asLong();
+        }
+        for (int i = 0; i < categoryIds.size(); i++) {
+            Map<String, Object> budget = new HashMap<>();
+            budget.put("amount", 300);
+            budget.put("type", "MONTHLY");
+            budget.put("startDate", today.withDayOfMonth(1).toString());
+            budget.put("endDate", today.withDayOfMonth(1).plusMonths(1).minusDays(1).toString());
+            budget.put("category", Map.of("id", categoryIds.get(i)));
+            budgetId = api.post(session, "/budgets", budget).get("id").asLong();
+        }
+        for (int i = 0; i < categoryIds.size(); i++) {
+            Map<String, Object> rule = new HashMap<>();
+            rule.put("description", "Subscription " + i);
+            rule.put("amount", 15);
+            rule.put("type", "EXPENSE");
+            rule.put("recurrenceType", i % 2 == 0 ? "WEEKLY" : "MONTHLY");
+            rule.put("startDate", today.toString());
+            rule.put("categoryId", categoryIds.get(i));
+            rule.put("accountId", accountIds.get(i));
+            recurringId = api.post(session, "/recurring-transactions", rule).get("id").asLong();
+        }
+
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void readEndpointsStayWithinTheirBudgets() throws Exception {
+        long overBudget = sqlBudgetFilter.getOverBudgetRequests();
+        String from = LocalDate.now().minusMonths(6).toString();
+        String to = LocalDate.now().toString();
+
+        api.get(session, "/auth/verify");
+        api.get(session, "/profile");
+        api.get(session, "/categories");
+        api.get(session, "/categories/" + categoryIds.get(0));
+        api.get(session, "/accounts");
+        api.get(session, "/accounts/" + accountIds.get(0));
+        api.get(session, "/budgets");
+        api.get(session, "/transactions?page=0&size=" + ROWS);
+        api.get(session, "/transactions/search?startDate=" + from + "&endDate=" + to);
+        api.get(session, "/transactions/search?categoryId=" + categoryIds.get(1) + "&accountId=" + accountIds.get(1));
+        api.get(session, "/recurring-transactions");
+        api.get(session, "/recurring-transactions/active");
+        api.get(session, "/recurring-transactions/" + recurringId);
+        api.get(session, "/recurring-transactions/calendar?from=" + to + "&to=" + LocalDate.now().plusMonths(3));
+        api.get(session, "/analytics/dashboard?startDate=" + from + "&endDate=" + to);
+        api.get(session, "/analytics/category-spending?startDate=" + from + "&endDate=" + to);
+        api.get(session, "/analytics/monthly-trend?startDate=" + from + "&endDate=" + to);
+        api.get(session, "/analytics/budget-status");
+
+        assertEquals(overBudget, sqlBudgetFilter.getOverBudgetRequests());
+    }
+
+    @Test
+    void writeEndpointsStayWithinTheirBudgets() throws Exception {
+        long overBudget = sqlBudgetFilter.getOverBudgetRequests();
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> login = Map.of("username", session.getUsername(), "password", TestApi.PASSWORD);
+        write(MockMvcRequestBuilders.post("/auth/login"), login);
+        write(MockMvcRequestBuilders.put("/profile"),
+                Map.of("username", session.getUsername(), "email", session.getUsername() + "@example.com",
+                        "firstName", "Budget", "lastName", "Tester"));
+
+        long categoryId = api.post(session, "/categories", Map.of("name", "Spare", "color", "#45B7D1"))
+                .get("id").asLong();
+        write(MockMvcRequestBuilders.put("/categories/" + categoryId), Map.of("name", "Spare room", "color", "#45B7D1"));
+        write(MockMvcRequestBuilders.delete("/categories/" + categoryId), null);
+
+        long accountId = api.post(session, "/accounts", Map.of("name", "Savings", "type", "BANK", "balance", 100))
+                .get("id").asLong();
+        write(MockMvcRequestBuilders.put("/accounts/" + accountId), Map.of("name", "Rainy day", "type", "BANK", "balance", 100));
+        write(MockMvcRequestBuilders.delete("/accounts/" + accountId), null);
+
+        Map<String, Object> transaction = new HashMap<>();
+        transaction.put("amount", 42);
+        transaction.put("description", "Groceries");
+        transaction.put("type", "EXPENSE");
+        transaction.put("transactionDate", today.toString());
+        transaction.put("categoryId", categoryIds.get(0));
+        transaction.put("accountId", accountIds.get(0));
+        write(MockMvcRequestBuilders.post("/transactions"), transaction);
+        transaction.put("accountId", accountIds.get(1));
+        write(MockMvcRequestBuilders.put("/transactions/" + transactionId), transaction);
+        write(MockMvcRequestBuilders.delete("/transactions/" + transactionId), null);
+
+        Map<String, Object> budget = new HashMap<>();
+        budget.put("amount", 450);
+        budget.put("type", "MONTHLY");
+        budget.put("startDate", today.withDayOfMonth(1).toString());
+        budget.put("endDate", today.withDayOfMonth(1).plusMonths(1).minusDays(1).toString());
+        budget.put("category", Map.of("id", categoryIds.get(0)));
+        write(MockMvcRequestBuilders.put("/budgets/" + budgetId), budget);
+        write(MockMvcRequestBuilders.delete("/budgets/" + budgetId), null);
+
+        // A daily rule three occurrences behind, so catch-up has more than one to post
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("description", "Parking");
+        rule.put("amount", 4);
+        rule.put("type", "EXPENSE");
+        rule.put("recurrenceType", "DAILY");
+        rule.put("startDate", today.minusDays(3).toString());
+        rule.put("categoryId", categoryIds.get(1));
+        rule.put("accountId", accountIds.get(1));
+        long behindId = api.post(session, "/recurring-transactions", rule).get("id").asLong();
+        write(MockMvcRequestBuilders.post("/recurring-transactions/" + behindId + "/catch-up"), null);
+        write(MockMvcRequestBuilders.post("/recurring-transactions/" + recurringId + "/execute"), null);
+        write(MockMvcRequestBuilders.post("/recurring-transactions/" + recurringId + "/toggle"), null);
+        rule.put("description", "Parking permit");
+        write(MockMvcRequestBuilders.put("/recurring-transactions/" + behindId), rule);
+        write(MockMvcRequestBuilders.delete("/recurring-transactions/" + behindId), null);
+
+        // Changing the password ends the session's token, so logout runs as a second user
+        write(MockMvcRequestBuilders.post("/profile/change-password"),
+                Map.of("currentPassword", TestApi.PASSWORD, "newPassword", "password456"));
+        api.send(api.register("budget-logout"), MockMvcRequestBuilders.post("/auth/logout"), null);
+
+        assertEquals(overBudget, sqlBudgetFilter.getOverBudgetRequests());
+    }
+
+    private void write(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        int status = api.perform(session, request, body).getResponse().getStatus();
+        assertTrue(status == 200 || status == 204, "returned " + status);
+    }
+}
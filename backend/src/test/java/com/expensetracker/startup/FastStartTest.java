@@ -0,0 +1,38 @@
+package com.expensetracker.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application with the fast-start profile and fails when it takes longer than
+ * {@code startup.budget-ms}. The in-memory database starts empty, so the schema is still created
+ * rather than validated, and the dialect is given as fast-start skips the metadata lookup.
+ * <p>
+ * The budget here is far below the production 60 s. A lazy context on H2 starts in a few seconds,
+ * so the limit allows roughly twice that; a bean that is eager again, or a runner that is no longer
+ * deferred, goes over it.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "startup.budget-ms=10000"
+})
+@ActiveProfiles({"test", "fast-start"})
+class FastStartTest {
+
+    @Autowired
+    private StartupTimings startupTimings;
+
+    @Test
+    void startsWithinTheBudget() {
+        assertTrue(startupTimings.isWithinBudget(), "Started in " + startupTimings.getStartupMillis()
+                + " ms, budget " + startupTimings.getBudgetMillis() + " ms; phases: "
+                + Arrays.toString(startupTimings.getPhases()));
+    }
+}